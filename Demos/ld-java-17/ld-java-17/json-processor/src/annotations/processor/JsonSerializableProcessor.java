@@ -0,0 +1,278 @@
+package annotations.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Compile-time counterpart of annotations.CompiledSerializer.
+// For every class annotated with annotations.JsonSerializable it generates, in the same package,
+//
+//   public final class Customer_JsonSerializer implements JsonModelSerializer<Customer> {
+//       private static final byte[] KEY_0 = "{\"firstName\":".getBytes(UTF_8);
+//       ...
+//       public void write(Customer model, JsonWriter writer) throws IOException {
+//           model.initProperCase();                      // @Init methods, called directly
+//           writer.writeRaw(KEY_0);
+//           writer.writeString(model.getFirstName());    // field, or its getter when private
+//           ...
+//       }
+//   }
+//
+// and CompiledSerializer.forClass() picks it up by that name instead of reflecting on the model.
+// A generated class can only use what its package can see, so a model is skipped (with a warning,
+// it then falls back to the runtime path) when it is private or generic, has a private @Init
+// method, or has a private @JsonElement field without a non-private getX() / isX().
+//
+// This module does not depend on the annotations package: the annotation types are matched by
+// name, so the processor can be built before the code it processes.
+//
+// Command line build:
+//   javac -d out/json-processor json-processor/src/annotations/processor/*.java
+//   cp -r json-processor/resources/META-INF out/json-processor/
+//   javac -processorpath out/json-processor -s generated -d out/ld-java-17 $(find src -name '*.java')
+@SupportedAnnotationTypes(JsonSerializableProcessor.JSON_SERIALIZABLE)
+public class JsonSerializableProcessor extends AbstractProcessor {
+    static final String JSON_SERIALIZABLE = "annotations.JsonSerializable";
+    private static final String JSON_ELEMENT = "annotations.JsonElement";
+    private static final String INIT = "annotations.Init";
+    // Must match annotations.CompiledSerializer.GENERATED_SUFFIX
+    private static final String SUFFIX = "_JsonSerializer";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    continue;
+                }
+                TypeElement type = (TypeElement) element;
+                try {
+                    generate(type);
+                } catch (UnsupportedModelException exception) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                            "No serializer generated for " + type.getSimpleName() + ": " + exception.getMessage()
+                                    + ". It will be serialized through reflection at runtime.", type);
+                } catch (IOException exception) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Cannot write the serializer for " + type.getSimpleName() + ": " + exception.getMessage(), type);
+                }
+            }
+        }
+        // Other processors may look at @JsonSerializable too
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        checkAccessible(type);
+        List<String> initCalls = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (hasAnnotation(method, INIT)) {
+                if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)
+                        || !method.getParameters().isEmpty()) {
+                    throw new UnsupportedModelException("@Init method " + method.getSimpleName() + "() must be a non-private, non-static method without parameters");
+                }
+                initCalls.add("model." + method.getSimpleName() + "()");
+            }
+        }
+        List<String> keys = new ArrayList<>();
+        List<String> writes = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror jsonElement = findAnnotation(field, JSON_ELEMENT);
+            if (jsonElement == null) {
+                continue;
+            }
+            String key = annotationValue(jsonElement, "key");
+            if (key.isEmpty()) {
+                key = field.getSimpleName().toString();
+            }
+            keys.add((keys.isEmpty() ? "{" : ",") + "\"" + jsonEscape(key) + "\":");
+            writes.add(writeCall(field.asType(), accessor(type, field)));
+        }
+
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        String modelName = type.getQualifiedName().toString();
+
+        JavaFileObject file = processingEnv.getFiler()
+                .createSourceFile(packageName.isEmpty() ? simpleName : packageName + "." + simpleName, type);
+        try (Writer out = file.openWriter()) {
+            if (!packageName.isEmpty()) {
+                out.write("package " + packageName + ";\n\n");
+            }
+            out.write("// Generated by " + getClass().getName() + " from " + modelName + ". Do not edit.\n");
+            out.write("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n");
+            out.write("public final class " + simpleName + " implements annotations.JsonModelSerializer<" + modelName + "> {\n");
+            for (int i = 0; i < keys.size(); i++) {
+                out.write("    private static final byte[] KEY_" + i + " = \"" + javaEscape(keys.get(i))
+                        + "\".getBytes(java.nio.charset.StandardCharsets.UTF_8);\n");
+            }
+            out.write("\n    @Override\n");
+            out.write("    public void write(" + modelName + " model, annotations.JsonWriter writer) throws java.io.IOException {\n");
+            for (String initCall : initCalls) {
+                out.write("        " + initCall + ";\n");
+            }
+            if (keys.isEmpty()) {
+                out.write("        writer.writeByte('{');\n");
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                out.write("        writer.writeRaw(KEY_" + i + ");\n");
+                out.write("        " + writes.get(i) + ";\n");
+            }
+            out.write("        writer.writeByte('}');\n");
+            out.write("    }\n");
+            out.write("}\n");
+        }
+    }
+
+    private static void checkAccessible(TypeElement type) {
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedModelException("generic model classes are not supported");
+        }
+        for (Element element = type; element instanceof TypeElement nested; element = element.getEnclosingElement()) {
+            if (nested.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new UnsupportedModelException(nested.getSimpleName() + " is private");
+            }
+            if (nested.getNestingKind() == NestingKind.MEMBER && !nested.getModifiers().contains(Modifier.STATIC)
+                    && nested.getKind() == ElementKind.CLASS) {
+                throw new UnsupportedModelException(nested.getSimpleName() + " is an inner (non-static) class");
+            }
+            if (nested.getNestingKind() == NestingKind.LOCAL || nested.getNestingKind() == NestingKind.ANONYMOUS) {
+                throw new UnsupportedModelException(nested.getSimpleName() + " is a local class");
+            }
+        }
+    }
+
+    // model.field, or model.getField() / model.isField() when the field is private
+    private String accessor(TypeElement type, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return "model." + name;
+        }
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            String methodName = method.getSimpleName().toString();
+            boolean getterName = methodName.equals("get" + capitalized)
+                    || (field.asType().getKind() == TypeKind.BOOLEAN && methodName.equals("is" + capitalized));
+            if (getterName && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC)
+                    && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                return "model." + methodName + "()";
+            }
+        }
+        throw new UnsupportedModelException("private field " + name + " has no get" + capitalized + "() method");
+    }
+
+    // The same typed writers CompiledSerializer chooses at runtime
+    private static String writeCall(TypeMirror type, String value) {
+        return switch (type.getKind()) {
+            case INT, LONG, SHORT, BYTE -> "writer.writeLong(" + value + ")";
+            case DOUBLE, FLOAT -> "writer.writeDouble(" + value + ")";
+            case BOOLEAN -> "writer.writeBoolean(" + value + ")";
+            case CHAR -> "writer.writeChar(" + value + ")";
+            default -> type.toString().equals("java.lang.String")
+                    ? "writer.writeString(" + value + ")"
+                    : "writer.writeValue(" + value + ")";
+        };
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return findAnnotation(element, annotationName) != null;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private String annotationValue(AnnotationMirror mirror, String name) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+                processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return String.valueOf(entry.getValue().getValue());
+            }
+        }
+        return "";
+    }
+
+    // Same escaping as JsonWriter.writeString (non-ASCII stays as is and becomes UTF-8)
+    private static String jsonEscape(String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                case '\b' -> escaped.append("\\b");
+                case '\f' -> escaped.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    // Java string literal content; non-ASCII as unicode escapes so the source encoding does not matter
+    // (control characters cannot occur, jsonEscape already replaced them)
+    private static String javaEscape(String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c > 0x7E) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static class UnsupportedModelException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedModelException(String message) {
+            super(message);
+        }
+    }
+}
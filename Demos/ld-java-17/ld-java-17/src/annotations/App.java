@@ -1,5 +1,9 @@
 package annotations;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
 public class App {
     public static void main(String[] args) {
         Customer customer = new Customer("john","rambo","50");
@@ -7,5 +11,20 @@ public class App {
         ModelToJsonConverter modelToJsonConverter = new ModelToJsonConverter();
         String jsonString = modelToJsonConverter.convertToJson( customer );
         System.out.println(jsonString);
+
+        // Nested model, primitives and BigDecimal, streamed straight to System.out
+        CustomerAccount account = new CustomerAccount(customer, 1001L, new BigDecimal("2500.75"), true);
+        try {
+            JsonWriter writer = new JsonWriter(System.out);
+            writer.writeObject(account).writeSeparator('\n').flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        // And back: keys are mapped through @JsonElement, @Init runs after population
+        JsonToModelConverter jsonToModelConverter = new JsonToModelConverter();
+        Customer parsed = jsonToModelConverter.convertFromJson(
+                "{\"firstName\":\"sarah\",\"lastName\":\"connor\",\"successfulTransactionFormatted\":\"75\"}", Customer.class);
+        System.out.println(parsed);
     }
 }
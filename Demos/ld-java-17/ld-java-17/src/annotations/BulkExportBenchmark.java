@@ -0,0 +1,72 @@
+package annotations;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Exports a large List<Customer> to a temporary file, one object at a time through convertToJson()
+// and then with convertAllToJson() (parallel chunks + gathering FileChannel writes), and prints MB/s.
+// Usage: BulkExportBenchmark [customers]
+public class BulkExportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            customers.add(new Customer("first" + i, "last" + i, String.valueOf(i % 1000)));
+        }
+        ModelToJsonConverter converter = new ModelToJsonConverter();
+        Path file = Files.createTempFile("customers", ".json");
+        try {
+            // Warm-up JVM
+            for (int round = 0; round < 2; round++) {
+                writeOneByOne(converter, customers.subList(0, Math.min(count, 100_000)), file);
+                writeBulk(converter, customers.subList(0, Math.min(count, 100_000)), file);
+            }
+
+            // Actual benchmarking
+            long oneByOneStart = System.nanoTime();
+            writeOneByOne(converter, customers, file);
+            long oneByOneTime = System.nanoTime() - oneByOneStart;
+            long oneByOneBytes = Files.size(file);
+
+            long bulkStart = System.nanoTime();
+            writeBulk(converter, customers, file);
+            long bulkTime = System.nanoTime() - bulkStart;
+            long bulkBytes = Files.size(file);
+
+            // Print results
+            System.out.printf("Customers : %d, cores : %d%n", count, Runtime.getRuntime().availableProcessors());
+            System.out.printf("One by one        : %d ms, %.0f MB/s%n", oneByOneTime / 1_000_000, oneByOneBytes * 1e3 / oneByOneTime);
+            System.out.printf("convertAllToJson  : %d ms, %.0f MB/s%n", bulkTime / 1_000_000, bulkBytes * 1e3 / bulkTime);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void writeOneByOne(ModelToJsonConverter converter, List<Customer> customers, Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            out.write('[');
+            for (int i = 0; i < customers.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write(converter.convertToJson(customers.get(i)).getBytes(StandardCharsets.UTF_8));
+            }
+            out.write(']');
+            out.write('\n');
+        }
+    }
+
+    private static void writeBulk(ModelToJsonConverter converter, List<Customer> customers, Path file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file.toFile())) {
+            converter.convertAllToJson(customers, out);
+        }
+    }
+}
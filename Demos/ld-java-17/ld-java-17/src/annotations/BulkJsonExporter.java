@@ -0,0 +1,161 @@
+package annotations;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Bulk export of many @JsonSerializable models as one JSON array or as NDJSON (one object per line).
+//
+//   models ──► chunks of CHUNK_SIZE ──► fork-join workers: each chunk serialized into its own
+//                                        pooled JsonWriter buffer, in parallel
+//          ──► calling thread: takes finished chunks IN INPUT ORDER and hands several of them
+//              at once to a gathering write (FileChannel.write(ByteBuffer[])), no concatenation
+//
+// Only a bounded window of chunks is in flight, so memory stays flat for tens of millions of
+// models and lazy Iterables are consumed as they go. Chunk buffers are recycled through a pool
+// rather than kept per thread: a worker moves on to the next chunk while the buffer it just
+// filled is still waiting for its turn to be written.
+public final class BulkJsonExporter {
+    public enum Format { JSON_ARRAY, NDJSON }
+
+    private static final int CHUNK_SIZE = 4096;
+    // Max chunks handed to one gathering write
+    private static final int GATHER_LIMIT = 16;
+
+    private final ForkJoinPool pool;
+    private final int window;
+
+    public BulkJsonExporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BulkJsonExporter(ForkJoinPool pool) {
+        this.pool = pool;
+        this.window = Math.max(2, pool.getParallelism() * 2);
+    }
+
+    // FileOutputStreams are written through their FileChannel; any other stream through a channel adapter
+    public void export(Iterable<?> models, OutputStream out, Format format) throws IOException {
+        if (out instanceof FileOutputStream fileOut) {
+            export(models, fileOut.getChannel(), format);
+        } else {
+            export(models, Channels.newChannel(out), format);
+            out.flush();
+        }
+    }
+
+    public void export(Iterable<?> models, WritableByteChannel channel, Format format) throws IOException {
+        BlockingQueue<JsonWriter> buffers = new ArrayBlockingQueue<>(window);
+        for (int i = 0; i < window; i++) {
+            buffers.add(new JsonWriter());
+        }
+        ArrayDeque<ForkJoinTask<JsonWriter>> inFlight = new ArrayDeque<>();
+        Iterator<?> iterator = models.iterator();
+        boolean first = true;
+        try {
+            if (format == Format.JSON_ARRAY) {
+                writeFully(channel, ByteBuffer.wrap(new byte[] {'['}));
+            }
+            while (iterator.hasNext()) {
+                Object[] chunk = nextChunk(iterator);
+                boolean leadingComma = format == Format.JSON_ARRAY && !first;
+                first = false;
+                if (inFlight.size() == window) {
+                    writeCompleted(channel, inFlight, buffers);
+                }
+                JsonWriter buffer = buffers.remove();
+                inFlight.add(pool.submit(() -> serialize(chunk, buffer, format, leadingComma)));
+            }
+            while (!inFlight.isEmpty()) {
+                writeCompleted(channel, inFlight, buffers);
+            }
+            if (format == Format.JSON_ARRAY) {
+                writeFully(channel, ByteBuffer.wrap(new byte[] {']', '\n'}));
+            }
+        } finally {
+            for (ForkJoinTask<JsonWriter> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    private static Object[] nextChunk(Iterator<?> iterator) {
+        Object[] chunk = new Object[CHUNK_SIZE];
+        int count = 0;
+        while (count < CHUNK_SIZE && iterator.hasNext()) {
+            chunk[count++] = iterator.next();
+        }
+        return count == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, count);
+    }
+
+    // Runs on a fork-join worker
+    private static JsonWriter serialize(Object[] chunk, JsonWriter buffer, Format format, boolean leadingComma) {
+        buffer.reset();
+        try {
+            for (int i = 0; i < chunk.length; i++) {
+                if (format == Format.NDJSON) {
+                    buffer.writeObject(chunk[i]).writeSeparator('\n');
+                } else {
+                    if (i > 0 || leadingComma) {
+                        buffer.writeSeparator(',');
+                    }
+                    buffer.writeObject(chunk[i]);
+                }
+            }
+        } catch (IOException exception) {
+            // In-memory writers have no sink
+            throw new UncheckedIOException(exception);
+        }
+        return buffer;
+    }
+
+    // Waits for the oldest chunk, then also takes every directly following chunk that is already
+    // done, and writes them all with one gathering write
+    private void writeCompleted(WritableByteChannel channel, ArrayDeque<ForkJoinTask<JsonWriter>> inFlight,
+                                BlockingQueue<JsonWriter> buffers) throws IOException {
+        JsonWriter[] ready = new JsonWriter[GATHER_LIMIT];
+        int count = 0;
+        ready[count++] = inFlight.remove().join();
+        while (count < GATHER_LIMIT && !inFlight.isEmpty() && inFlight.peek().isDone()) {
+            ready[count++] = inFlight.remove().join();
+        }
+        ByteBuffer[] gather = new ByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            gather[i] = ByteBuffer.wrap(ready[i].buffer(), 0, ready[i].size());
+        }
+        if (channel instanceof GatheringByteChannel gathering) {
+            long remaining = 0;
+            for (ByteBuffer buffer : gather) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= gathering.write(gather);
+            }
+        } else {
+            for (ByteBuffer buffer : gather) {
+                writeFully(channel, buffer);
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            buffers.add(ready[i]);
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package annotations;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Deserializer for ONE @JsonSerializable class, the reading counterpart of CompiledSerializer,
+// built once and cached per class in a ClassValue. compile() does all the reflection:
+//   - the @JsonElement keys go into an open-addressing table of raw UTF-8 key bytes, so an
+//     incoming key is matched straight from the input without creating a String
+//   - each key maps to a value kind chosen by the field's declared type and to the way the
+//     value reaches the object (see below)
+//   - @Init methods are bound to MethodHandles and run after the object is populated
+//
+// Models are created in one of two ways:
+//   - a no-arg constructor, then one setter MethodHandle per field that was present in the JSON
+//   - otherwise a constructor whose parameter types are the @JsonElement field types in
+//     declaration order (Customer(String, String, String), like a record's canonical constructor);
+//     missing fields are passed as null / 0 / false
+// Unknown keys are skipped, so feeds may carry more fields than the model.
+final class CompiledDeserializer {
+    private static final ClassValue<CompiledDeserializer> DESERIALIZERS = new ClassValue<>() {
+        @Override
+        protected CompiledDeserializer computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private static final int MAX_DEPTH = 64;
+
+    // Value kinds
+    private static final int STRING = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int SHORT = 3;
+    private static final int BYTE = 4;
+    private static final int DOUBLE = 5;
+    private static final int FLOAT = 6;
+    private static final int BOOLEAN = 7;
+    private static final int CHAR = 8;
+    private static final int BIG_DECIMAL = 9;
+    private static final int BIG_INTEGER = 10;
+    private static final int MODEL = 11;
+
+    // Marks a field that did not appear in the input (no-arg constructor mode)
+    private static final Object ABSENT = new Object();
+    private static final MethodType INIT_TYPE = MethodType.methodType(void.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    // Key table: slot -> field index + 1 (0 = empty), probed linearly from hash & mask
+    private final int[] slots;
+    private final byte[][] keys;
+    private final int[] kinds;
+    private final boolean[] primitive;
+    private final Class<?>[] types;
+    // ()Object for the no-arg mode, (Object[])Object spreading into the field constructor otherwise
+    private final MethodHandle constructor;
+    // (Object, Object)void per field; null in constructor mode
+    private final MethodHandle[] setters;
+    // Constructor arguments for fields missing from the input
+    private final Object[] defaults;
+    private final MethodHandle[] initMethods;
+
+    private CompiledDeserializer(Class<?> type, int[] slots, byte[][] keys, int[] kinds, boolean[] primitive,
+                                 Class<?>[] types, MethodHandle constructor, MethodHandle[] setters,
+                                 Object[] defaults, MethodHandle[] initMethods) {
+        this.type = type;
+        this.slots = slots;
+        this.keys = keys;
+        this.kinds = kinds;
+        this.primitive = primitive;
+        this.types = types;
+        this.constructor = constructor;
+        this.setters = setters;
+        this.defaults = defaults;
+        this.initMethods = initMethods;
+    }
+
+    static CompiledDeserializer forClass(Class<?> clazz) {
+        return DESERIALIZERS.get(clazz);
+    }
+
+    static CompiledDeserializer compile(Class<?> clazz) {
+        if (!clazz.isAnnotationPresent(JsonSerializable.class)) {
+            throw new JsonSerializationException("Json Deserialization not possible on " + clazz.getSimpleName() + " class. For deserialization annotate the class with JsonSerializable.");
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+
+            List<MethodHandle> initMethods = new ArrayList<>();
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Init.class)) {
+                    initMethods.add(lookup.unreflect(method).asType(INIT_TYPE));
+                }
+            }
+
+            List<Field> fields = new ArrayList<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(JsonElement.class)) {
+                    fields.add(field);
+                }
+            }
+            int count = fields.size();
+            byte[][] keys = new byte[count][];
+            int[] kinds = new int[count];
+            boolean[] primitive = new boolean[count];
+            Class<?>[] types = new Class<?>[count];
+            Object[] defaults = new Object[count];
+            for (int i = 0; i < count; i++) {
+                Field field = fields.get(i);
+                keys[i] = getKey(field).getBytes(StandardCharsets.UTF_8);
+                types[i] = field.getType();
+                kinds[i] = kindOf(field);
+                primitive[i] = types[i].isPrimitive();
+                defaults[i] = primitive[i] ? defaultValue(types[i]) : null;
+            }
+
+            MethodHandle constructor;
+            MethodHandle[] setters = null;
+            Constructor<?> noArg = findConstructor(clazz);
+            if (noArg != null) {
+                constructor = lookup.unreflectConstructor(noArg).asType(MethodType.methodType(Object.class));
+                setters = new MethodHandle[count];
+                for (int i = 0; i < count; i++) {
+                    setters[i] = lookup.unreflectSetter(fields.get(i)).asType(SETTER_TYPE);
+                }
+            } else {
+                Constructor<?> fieldConstructor = findConstructor(clazz, types);
+                if (fieldConstructor == null) {
+                    throw new JsonSerializationException(clazz.getSimpleName() + " needs a no-arg constructor or a constructor taking its @JsonElement fields in declaration order.");
+                }
+                constructor = lookup.unreflectConstructor(fieldConstructor)
+                        .asType(MethodType.methodType(Object.class, types))
+                        .asSpreader(Object[].class, count);
+            }
+            return new CompiledDeserializer(clazz, buildSlots(keys), keys, kinds, primitive, types,
+                    constructor, setters, defaults, initMethods.toArray(new MethodHandle[0]));
+        } catch (IllegalAccessException exception) {
+            throw new JsonSerializationException("Cannot access members of " + clazz.getName() + ": " + exception.getMessage(), exception);
+        }
+    }
+
+    private static String getKey(Field field) {
+        String value = field.getAnnotation(JsonElement.class).key();
+        return value.isEmpty() ? field.getName() : value;
+    }
+
+    private static int kindOf(Field field) {
+        Class<?> type = field.getType();
+        if (type == String.class) {
+            return STRING;
+        } else if (type == int.class || type == Integer.class) {
+            return INT;
+        } else if (type == long.class || type == Long.class) {
+            return LONG;
+        } else if (type == short.class || type == Short.class) {
+            return SHORT;
+        } else if (type == byte.class || type == Byte.class) {
+            return BYTE;
+        } else if (type == double.class || type == Double.class) {
+            return DOUBLE;
+        } else if (type == float.class || type == Float.class) {
+            return FLOAT;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == char.class || type == Character.class) {
+            return CHAR;
+        } else if (type == BigDecimal.class) {
+            return BIG_DECIMAL;
+        } else if (type == BigInteger.class) {
+            return BIG_INTEGER;
+        } else if (type.isAnnotationPresent(JsonSerializable.class)) {
+            return MODEL;
+        }
+        throw new JsonSerializationException("Unsupported field type " + type.getSimpleName() + " for " + field.getDeclaringClass().getSimpleName() + "." + field.getName());
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == char.class) {
+            return (char) 0;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == double.class) {
+            return 0d;
+        }
+        return 0f;
+    }
+
+    private static Constructor<?> findConstructor(Class<?> clazz, Class<?>... parameterTypes) {
+        try {
+            return clazz.getDeclaredConstructor(parameterTypes);
+        } catch (NoSuchMethodException exception) {
+            return null;
+        }
+    }
+
+    // Must match JsonReader.tokenHash
+    static int hashKey(byte[] key) {
+        int h = 0;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        return h;
+    }
+
+    private static int[] buildSlots(byte[][] keys) {
+        // At most half full, so probes stay short and there is always an empty slot to stop at
+        int[] slots = new int[Integer.highestOneBit(Math.max(keys.length, 1) * 2) * 2];
+        int mask = slots.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = mix(hashKey(keys[i])) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = i + 1;
+        }
+        return slots;
+    }
+
+    private static int mix(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    // Field index of the key just read by reader.readRawString(), or -1 if the model has no such key
+    private int lookupKey(JsonReader reader) {
+        if (reader.tokenEscaped) {
+            // Escaped keys are rare: decode and compare as bytes
+            byte[] decoded = reader.tokenString().getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < keys.length; i++) {
+                if (Arrays.equals(keys[i], decoded)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = slots.length - 1;
+        int slot = mix(reader.tokenHash()) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            if (reader.tokenEquals(keys[entry - 1])) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Reads one JSON object at the reader's position into a new model
+    Object read(JsonReader reader, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw reader.error("Object nesting deeper than " + MAX_DEPTH + " levels");
+        }
+        Object[] values = defaults.clone();
+        if (setters != null) {
+            Arrays.fill(values, ABSENT);
+        }
+        reader.expect('{');
+        if (!reader.consume('}')) {
+            do {
+                reader.readRawString();
+                int field = lookupKey(reader);
+                reader.expect(':');
+                if (field < 0) {
+                    reader.skipValue();
+                } else {
+                    values[field] = readValue(reader, field, depth);
+                }
+            } while (reader.consume(','));
+            reader.expect('}');
+        }
+        return create(values);
+    }
+
+    private Object readValue(JsonReader reader, int field, int depth) {
+        if (reader.consumeNull()) {
+            if (primitive[field]) {
+                throw reader.error("null for primitive field " + type.getSimpleName() + "." + new String(keys[field], StandardCharsets.UTF_8));
+            }
+            return null;
+        }
+        try {
+            return readNonNull(reader, field, depth);
+        } catch (NumberFormatException exception) {
+            // Number text the grammar allows but the type does not (a fraction for BigInteger,
+            // an exponent beyond BigDecimal's range) or a quoted big number that is not a number
+            throw reader.error("Invalid number for " + type.getSimpleName() + "."
+                    + new String(keys[field], StandardCharsets.UTF_8) + ": " + exception.getMessage());
+        }
+    }
+
+    private Object readNonNull(JsonReader reader, int field, int depth) {
+        return switch (kinds[field]) {
+            case STRING -> reader.readString();
+            case INT -> (int) checkRange(reader, reader.readLong(), Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case LONG -> reader.readLong();
+            case SHORT -> (short) checkRange(reader, reader.readLong(), Short.MIN_VALUE, Short.MAX_VALUE);
+            case BYTE -> (byte) checkRange(reader, reader.readLong(), Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case DOUBLE -> Double.parseDouble(reader.readNumberText());
+            case FLOAT -> Float.parseFloat(reader.readNumberText());
+            case BOOLEAN -> reader.readBoolean();
+            case CHAR -> readChar(reader);
+            // Writers quote big numbers now and then; accept both forms
+            case BIG_DECIMAL -> new BigDecimal(reader.peek() == '"' ? reader.readString() : reader.readNumberText());
+            case BIG_INTEGER -> new BigInteger(reader.peek() == '"' ? reader.readString() : reader.readNumberText());
+            default -> forClass(types[field]).read(reader, depth + 1);
+        };
+    }
+
+    private static long checkRange(JsonReader reader, long value, long min, long max) {
+        if (value < min || value > max) {
+            throw reader.error("Number out of range");
+        }
+        return value;
+    }
+
+    private static char readChar(JsonReader reader) {
+        String value = reader.readString();
+        if (value.length() != 1) {
+            throw reader.error("Expected a single character");
+        }
+        return value.charAt(0);
+    }
+
+    private Object create(Object[] values) {
+        try {
+            Object model;
+            if (setters == null) {
+                model = (Object) constructor.invokeExact(values);
+            } else {
+                model = (Object) constructor.invokeExact();
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != ABSENT) {
+                        setters[i].invokeExact(model, values[i]);
+                    }
+                }
+            }
+            for (MethodHandle initMethod : initMethods) {
+                initMethod.invokeExact(model);
+            }
+            return model;
+        } catch (JsonSerializationException | Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new JsonSerializationException("Cannot create " + type.getSimpleName() + ": " + exception, exception);
+        }
+    }
+}
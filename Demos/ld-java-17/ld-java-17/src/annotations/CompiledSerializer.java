@@ -0,0 +1,189 @@
+package annotations;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+// Serializer for ONE @JsonSerializable class, built once and cached per class in a ClassValue.
+// All the reflection happens in compile():
+//   - @JsonElement keys are resolved and pre-encoded as the UTF-8 bytes of  "key":
+//   - fields and @Init methods are bound to MethodHandles through a private lookup,
+//     so no setAccessible and no Field.get / Method.invoke on the hot path
+//   - every field gets a writer chosen by its declared type, so primitives are written
+//     without boxing and Strings without a runtime type check
+// write() then only calls the bound handles and writes into a JsonWriter.
+//
+// When the json-processor module ran at compile time, the model has a generated
+// <Model>_JsonSerializer next to it that does the same with plain field/getter calls.
+// forClass() prefers that one, and then no reflection happens for the class at all.
+final class CompiledSerializer implements JsonModelSerializer<Object> {
+    // Must match annotations.processor.JsonSerializableProcessor
+    static final String GENERATED_SUFFIX = "_JsonSerializer";
+
+    // One serializer per model class, created on first use and then reused.
+    // ClassValue is the JDK's per-class cache: lock-free lookups and no Map<Class, ...> keeping
+    // classes (and their class loaders) alive.
+    private static final ClassValue<JsonModelSerializer<Object>> SERIALIZERS = new ClassValue<>() {
+        @Override
+        protected JsonModelSerializer<Object> computeValue(Class<?> type) {
+            JsonModelSerializer<Object> generated = loadGenerated(type);
+            return generated != null ? generated : compile(type);
+        }
+    };
+
+    // Field kinds, each with the getter shape used for invokeExact
+    private static final int STRING = 0;   // (Object)String
+    private static final int INTEGRAL = 1; // (Object)long   byte, short, int, long
+    private static final int FLOATING = 2; // (Object)double float, double
+    private static final int BOOLEAN = 3;  // (Object)boolean
+    private static final int CHAR = 4;     // (Object)char
+    private static final int OTHER = 5;    // (Object)Object boxed numbers, BigDecimal, nested models, ...
+
+    private static final MethodType INIT_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private final MethodHandle[] initMethods;
+    private final byte[][] keys;
+    private final int[] kinds;
+    private final MethodHandle[] getters;
+
+    private CompiledSerializer(MethodHandle[] initMethods, byte[][] keys, int[] kinds, MethodHandle[] getters) {
+        this.initMethods = initMethods;
+        this.keys = keys;
+        this.kinds = kinds;
+        this.getters = getters;
+    }
+
+    static JsonModelSerializer<Object> forClass(Class<?> clazz) {
+        return SERIALIZERS.get(clazz);
+    }
+
+    // The generated serializer for clazz, or null if the processor did not run for it
+    @SuppressWarnings("unchecked")
+    private static JsonModelSerializer<Object> loadGenerated(Class<?> clazz) {
+        Class<?> generated;
+        try {
+            generated = Class.forName(clazz.getName() + GENERATED_SUFFIX, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException exception) {
+            return null;
+        }
+        if (!JsonModelSerializer.class.isAssignableFrom(generated)) {
+            return null;
+        }
+        try {
+            return (JsonModelSerializer<Object>) MethodHandles.publicLookup()
+                    .findConstructor(generated, MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new JsonSerializationException("Cannot create " + generated.getName() + ": " + exception, exception);
+        }
+    }
+
+    static CompiledSerializer compile(Class<?> clazz) {
+        if (!clazz.isAnnotationPresent(JsonSerializable.class)) {
+            throw new JsonSerializationException("Json Serialization not possible on  " + clazz.getSimpleName() + "class. For serialization annotate the class with JsonSerializable.");
+        }
+        try {
+            // A lookup with private access to the model class, instead of setAccessible(true)
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+
+            List<MethodHandle> initMethods = new ArrayList<>();
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Init.class)) {
+                    initMethods.add(lookup.unreflect(method).asType(INIT_TYPE));
+                }
+            }
+
+            List<Field> fields = new ArrayList<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(JsonElement.class)) {
+                    fields.add(field);
+                }
+            }
+            byte[][] keys = new byte[fields.size()][];
+            int[] kinds = new int[fields.size()];
+            MethodHandle[] getters = new MethodHandle[fields.size()];
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                JsonWriter key = new JsonWriter();
+                key.writeString(getKey(field));
+                key.writeByte(':');
+                keys[i] = key.toByteArray();
+                kinds[i] = kindOf(field.getType());
+                getters[i] = lookup.unreflectGetter(field).asType(getterType(kinds[i]));
+            }
+            return new CompiledSerializer(initMethods.toArray(new MethodHandle[0]), keys, kinds, getters);
+        } catch (IllegalAccessException exception) {
+            throw new JsonSerializationException("Cannot access members of " + clazz.getName() + ": " + exception.getMessage(), exception);
+        }
+    }
+
+    private static String getKey(Field field) {
+        String value = field.getAnnotation(JsonElement.class).key();
+        return value.isEmpty() ? field.getName() : value;
+    }
+
+    private static int kindOf(Class<?> type) {
+        if (type == String.class) {
+            return STRING;
+        } else if (type == int.class || type == long.class || type == short.class || type == byte.class) {
+            return INTEGRAL;
+        } else if (type == double.class || type == float.class) {
+            return FLOATING;
+        } else if (type == boolean.class) {
+            return BOOLEAN;
+        } else if (type == char.class) {
+            return CHAR;
+        }
+        return OTHER;
+    }
+
+    private static MethodType getterType(int kind) {
+        Class<?> returnType = switch (kind) {
+            case STRING -> String.class;
+            case INTEGRAL -> long.class;
+            case FLOATING -> double.class;
+            case BOOLEAN -> boolean.class;
+            case CHAR -> char.class;
+            default -> Object.class;
+        };
+        return MethodType.methodType(returnType, Object.class);
+    }
+
+    // Runs the @Init methods, then writes {"key":value,...} in field declaration order
+    @Override
+    public void write(Object object, JsonWriter writer) throws IOException {
+        try {
+            for (MethodHandle initMethod : initMethods) {
+                initMethod.invokeExact(object);
+            }
+            writer.writeByte('{');
+            for (int i = 0; i < getters.length; i++) {
+                if (i > 0) {
+                    writer.writeByte(',');
+                }
+                writer.writeRaw(keys[i]);
+                MethodHandle getter = getters[i];
+                switch (kinds[i]) {
+                    case STRING -> writer.writeString((String) getter.invokeExact(object));
+                    case INTEGRAL -> writer.writeLong((long) getter.invokeExact(object));
+                    case FLOATING -> writer.writeDouble((double) getter.invokeExact(object));
+                    case BOOLEAN -> writer.writeBoolean((boolean) getter.invokeExact(object));
+                    case CHAR -> writer.writeChar((char) getter.invokeExact(object));
+                    default -> writer.writeValue((Object) getter.invokeExact(object));
+                }
+            }
+            writer.writeByte('}');
+        } catch (JsonSerializationException | IOException | Error exception) {
+            throw exception;
+        } catch (Throwable exception) {
+            throw new JsonSerializationException("Cannot serialize " + object.getClass().getSimpleName() + ": " + exception, exception);
+        }
+    }
+}
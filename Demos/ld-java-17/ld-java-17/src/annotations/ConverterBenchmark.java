@@ -0,0 +1,87 @@
+package annotations;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+
+// Compares the reflective convertToJsonReflective() with the compiled, ClassValue-cached convertToJson()
+// and with streaming into one reused JsonWriter buffer (no String per object at all).
+// Streaming uses the serializer generated by json-processor when the sources were compiled with it;
+// the "MethodHandle serializer" line always measures the runtime-compiled CompiledSerializer for comparison.
+// Plain main-method harness (warm-up, then timed loops), like m6stackwalkingapi.StackTracePerformanceTest.
+// The lab path prints debug lines on every call; System.out is muted while timing so the
+// numbers measure serialization, not console output.
+public class ConverterBenchmark {
+    private static final int WARMUP_ITERATIONS = 50_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) {
+        ModelToJsonConverter converter = new ModelToJsonConverter();
+        Customer customer = new Customer("john", "rambo", "50");
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long reflectiveTime;
+        long compiledTime;
+        long streamingTime;
+        long methodHandleTime;
+        JsonWriter writer = new JsonWriter();
+        JsonModelSerializer<Object> methodHandleSerializer = CompiledSerializer.compile(Customer.class);
+        int checksum = 0;
+        try {
+            // Warm-up JVM
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                checksum += converter.convertToJsonReflective(customer).length();
+                checksum += converter.convertToJson(customer).length();
+                writer.reset();
+                checksum += writer.writeObject(customer).size();
+                writer.reset();
+                methodHandleSerializer.write(customer, writer);
+                checksum += writer.size();
+            }
+
+            // Actual benchmarking
+            long reflectiveStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                checksum += converter.convertToJsonReflective(customer).length();
+            }
+            reflectiveTime = System.nanoTime() - reflectiveStart;
+
+            long compiledStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                checksum += converter.convertToJson(customer).length();
+            }
+            compiledTime = System.nanoTime() - compiledStart;
+
+            long streamingStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                writer.reset();
+                checksum += writer.writeObject(customer).size();
+            }
+            streamingTime = System.nanoTime() - streamingStart;
+
+            long methodHandleStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                writer.reset();
+                methodHandleSerializer.write(customer, writer);
+                checksum += writer.size();
+            }
+            methodHandleTime = System.nanoTime() - methodHandleStart;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            System.setOut(console);
+        }
+
+        // Print results
+        System.out.printf("Reflective converter (ns/op): %d%n", reflectiveTime / ITERATIONS);
+        System.out.printf("Compiled converter   (ns/op): %d%n", compiledTime / ITERATIONS);
+        System.out.printf("Streaming JsonWriter (ns/op): %d  [%s]%n", streamingTime / ITERATIONS,
+                CompiledSerializer.forClass(Customer.class).getClass().getSimpleName());
+        System.out.printf("MethodHandle serializer (ns/op): %d%n", methodHandleTime / ITERATIONS);
+        System.out.printf("Speed-up : %.1fx compiled, %.1fx streaming%n",
+                (double) reflectiveTime / compiledTime, (double) reflectiveTime / streamingTime);
+        System.out.println("Checksum : " + checksum);
+        System.out.println(converter.convertToJson(customer));
+    }
+}
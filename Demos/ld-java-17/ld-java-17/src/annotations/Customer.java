@@ -46,8 +46,9 @@ public class Customer {
 
     // Logic for proper casing
     // arun > Arun
+    // Package-private (not private) so the generated Customer_JsonSerializer can call it directly
 @Init
-    private void initProperCase() {
+    void initProperCase() {
         this.firstName = firstName.substring(0,1).toUpperCase() + firstName.substring(1);
         this.lastName = lastName.substring(0,1).toUpperCase() + lastName.substring(1);
     }
@@ -0,0 +1,40 @@
+package annotations;
+
+import java.math.BigDecimal;
+
+// Model with non-String fields and a nested model, to show what JsonWriter can serialize:
+// {"owner":{"firstName":"John",...},"accountNumber":1001,"balance":2500.75,"active":true}
+@JsonSerializable
+public class CustomerAccount {
+    @JsonElement
+    private Customer owner;
+    @JsonElement
+    private long accountNumber;
+    @JsonElement
+    private BigDecimal balance;
+    @JsonElement
+    private boolean active;
+
+    public CustomerAccount(Customer owner, long accountNumber, BigDecimal balance, boolean active) {
+        this.owner = owner;
+        this.accountNumber = accountNumber;
+        this.balance = balance;
+        this.active = active;
+    }
+
+    public Customer getOwner() {
+        return owner;
+    }
+
+    public long getAccountNumber() {
+        return accountNumber;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
@@ -0,0 +1,58 @@
+package annotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+// Parses an in-memory NDJSON feed of CustomerAccount lines (nested Customer, long, BigDecimal, boolean)
+// with JsonToModelConverter, in place from a byte[] and through an InputStream, and prints MB/s.
+// Usage: DeserializerBenchmark [accounts]
+public class DeserializerBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        List<CustomerAccount> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Customer owner = new Customer("first" + i, "last" + i, String.valueOf(i % 1000));
+            accounts.add(new CustomerAccount(owner, 1_000_000L + i, BigDecimal.valueOf(i, 2), i % 2 == 0));
+        }
+        ByteArrayOutputStream feed = new ByteArrayOutputStream();
+        new ModelToJsonConverter().convertAllToJson(accounts, feed, BulkJsonExporter.Format.NDJSON);
+        byte[] bytes = feed.toByteArray();
+        accounts = null;
+
+        JsonToModelConverter converter = new JsonToModelConverter();
+        long[] checksum = new long[1];
+        // Warm-up JVM
+        for (int round = 0; round < 2; round++) {
+            converter.convertFromNdjson(bytes, 0, bytes.length, CustomerAccount.class,
+                    account -> checksum[0] += account.getAccountNumber());
+        }
+
+        // Actual benchmarking
+        long inPlaceStart = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            converter.convertFromNdjson(bytes, 0, bytes.length, CustomerAccount.class,
+                    account -> checksum[0] += account.getAccountNumber());
+        }
+        long inPlaceTime = System.nanoTime() - inPlaceStart;
+
+        long streamStart = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            converter.convertFromNdjson(new ByteArrayInputStream(bytes), CustomerAccount.class,
+                    account -> checksum[0] += account.getAccountNumber());
+        }
+        long streamTime = System.nanoTime() - streamStart;
+
+        // Print results
+        long totalBytes = (long) bytes.length * ROUNDS;
+        System.out.printf("Accounts : %d, feed : %d bytes%n", count, bytes.length);
+        System.out.printf("byte[] NDJSON      : %.0f MB/s, %d ns/object%n", totalBytes * 1e3 / inPlaceTime, inPlaceTime / ((long) count * ROUNDS));
+        System.out.printf("InputStream NDJSON : %.0f MB/s, %d ns/object%n", totalBytes * 1e3 / streamTime, streamTime / ((long) count * ROUNDS));
+        System.out.println("Checksum : " + checksum[0]);
+    }
+}
@@ -0,0 +1,12 @@
+package annotations;
+
+import java.io.IOException;
+
+// Writes one model class into a JsonWriter, running its @Init methods first.
+// Implemented by CompiledSerializer (MethodHandles, built at runtime) and by the classes
+// the json-processor module generates at compile time (<Model>_JsonSerializer, plain calls).
+// An IOException (from an @Init method, or a nested model's sink) propagates unchanged to
+// JsonWriter.writeObject; other failures come out as JsonSerializationException.
+public interface JsonModelSerializer<T> {
+    void write(T model, JsonWriter writer) throws IOException;
+}
@@ -0,0 +1,333 @@
+package annotations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Incremental JSON tokenizer over a UTF-8 byte[] region, used by CompiledDeserializer.
+// It never builds a token tree: the deserializer pulls exactly the values it needs and the
+// reader skips everything else in place. Keys are not turned into Strings at all, they are
+// matched against the class's precomputed key table straight from the input bytes.
+// One reader can be reset() onto new input and reused, so its scratch buffer is pooled too.
+public final class JsonReader {
+    private byte[] input;
+    private int start;
+    private int position;
+    private int limit;
+    // Scratch space for strings that contain escapes; grows once, then reused
+    private char[] scratch = new char[64];
+
+    // Raw token of the last readRawString(): bytes [tokenStart, tokenEnd) between the quotes
+    int tokenStart;
+    int tokenEnd;
+    boolean tokenEscaped;
+
+    public JsonReader reset(byte[] input, int offset, int length) {
+        this.input = input;
+        this.start = offset;
+        this.position = offset;
+        this.limit = offset + length;
+        return this;
+    }
+
+    public boolean hasMore() {
+        skipWhitespace();
+        return position < limit;
+    }
+
+    byte peek() {
+        skipWhitespace();
+        if (position >= limit) {
+            throw error("Unexpected end of input");
+        }
+        return input[position];
+    }
+
+    void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    // Consumes c if it is the next token
+    boolean consume(char c) {
+        if (peek() == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    boolean consumeNull() {
+        if (peek() == 'n') {
+            expectLiteral("null");
+            return true;
+        }
+        return false;
+    }
+
+    // Scans a string token without decoding it; see tokenStart / tokenEnd / tokenEscaped
+    void readRawString() {
+        expect('"');
+        int start = position;
+        boolean escaped = false;
+        byte[] bytes = input;
+        int i = start;
+        while (true) {
+            if (i >= limit) {
+                throw error("Unterminated string");
+            }
+            byte b = bytes[i];
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                escaped = true;
+                i++;
+            }
+            i++;
+        }
+        tokenStart = start;
+        tokenEnd = i;
+        tokenEscaped = escaped;
+        position = i + 1;
+    }
+
+    // Hash of the last raw token's bytes; must match CompiledDeserializer.hashKey
+    int tokenHash() {
+        int h = 0;
+        for (int i = tokenStart; i < tokenEnd; i++) {
+            h = 31 * h + input[i];
+        }
+        return h;
+    }
+
+    boolean tokenEquals(byte[] key) {
+        int length = tokenEnd - tokenStart;
+        return length == key.length && Arrays.equals(input, tokenStart, tokenEnd, key, 0, length);
+    }
+
+    String readString() {
+        if (consumeNull()) {
+            return null;
+        }
+        readRawString();
+        return tokenString();
+    }
+
+    // The last raw token as a String
+    String tokenString() {
+        if (!tokenEscaped) {
+            // Fast path: pure ASCII is the common case and decodes as Latin-1 with a plain copy
+            boolean ascii = true;
+            for (int i = tokenStart; i < tokenEnd; i++) {
+                if (input[i] < 0) {
+                    ascii = false;
+                    break;
+                }
+            }
+            return new String(input, tokenStart, tokenEnd - tokenStart,
+                    ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+        return decodeEscaped();
+    }
+
+    private String decodeEscaped() {
+        int length = 0;
+        if (scratch.length < tokenEnd - tokenStart) {
+            scratch = new char[Math.max(scratch.length * 2, tokenEnd - tokenStart)];
+        }
+        char[] chars = scratch;
+        int i = tokenStart;
+        while (i < tokenEnd) {
+            int b = input[i] & 0xFF;
+            if (b == '\\') {
+                char next = (char) input[i + 1];
+                i += 2;
+                switch (next) {
+                    case '"', '\\', '/' -> chars[length++] = next;
+                    case 'n' -> chars[length++] = '\n';
+                    case 'r' -> chars[length++] = '\r';
+                    case 't' -> chars[length++] = '\t';
+                    case 'b' -> chars[length++] = '\b';
+                    case 'f' -> chars[length++] = '\f';
+                    case 'u' -> {
+                        if (i + 4 > tokenEnd) {
+                            throw error("Truncated unicode escape");
+                        }
+                        int code = 0;
+                        for (int end = i + 4; i < end; i++) {
+                            int digit = Character.digit(input[i], 16);
+                            if (digit < 0) {
+                                throw error("Invalid unicode escape");
+                            }
+                            code = code << 4 | digit;
+                        }
+                        chars[length++] = (char) code;
+                    }
+                    default -> throw error("Invalid escape '\\" + next + "'");
+                }
+            } else if (b < 0x80) {
+                chars[length++] = (char) b;
+                i++;
+            } else {
+                // Copy a run of non-ASCII bytes up to the next escape through the UTF-8 decoder
+                int runEnd = i;
+                while (runEnd < tokenEnd && input[runEnd] != '\\') {
+                    runEnd++;
+                }
+                String run = new String(input, i, runEnd - i, StandardCharsets.UTF_8);
+                run.getChars(0, run.length(), chars, length);
+                length += run.length();
+                i = runEnd;
+            }
+        }
+        return new String(chars, 0, length);
+    }
+
+    long readLong() {
+        skipWhitespace();
+        boolean negative = position < limit && input[position] == '-';
+        if (negative) {
+            position++;
+        }
+        int start = position;
+        long value = 0;
+        while (position < limit) {
+            int digit = input[position] - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value < -(Long.MAX_VALUE / 10) - 1 || (value = value * 10 - digit) > 0) {
+                throw error("Number out of range");
+            }
+            position++;
+        }
+        if (position == start) {
+            throw error("Expected a number");
+        }
+        if (position < limit && (input[position] == '.' || input[position] == 'e' || input[position] == 'E')) {
+            throw error("Expected an integer");
+        }
+        // Accumulated as a negative number so Long.MIN_VALUE fits
+        if (negative) {
+            return value;
+        }
+        if (value == Long.MIN_VALUE) {
+            throw error("Number out of range");
+        }
+        return -value;
+    }
+
+    // Returns the raw characters of a JSON number, for double / BigDecimal / BigInteger parsing.
+    // Checks the number grammar (sign, digits, fraction, exponent) so that what follows never sees
+    // text like "-" or "1-2"; the token ends at the first character that cannot continue it.
+    String readNumberText() {
+        skipWhitespace();
+        int start = position;
+        if (position < limit && input[position] == '-') {
+            position++;
+        }
+        if (skipDigits() == 0) {
+            throw error("Expected a number");
+        }
+        if (position < limit && input[position] == '.') {
+            position++;
+            if (skipDigits() == 0) {
+                throw error("Expected a digit after the decimal point");
+            }
+        }
+        if (position < limit && (input[position] == 'e' || input[position] == 'E')) {
+            position++;
+            if (position < limit && (input[position] == '+' || input[position] == '-')) {
+                position++;
+            }
+            if (skipDigits() == 0) {
+                throw error("Expected an exponent");
+            }
+        }
+        return new String(input, start, position - start, StandardCharsets.ISO_8859_1);
+    }
+
+    private int skipDigits() {
+        int start = position;
+        while (position < limit && input[position] >= '0' && input[position] <= '9') {
+            position++;
+        }
+        return position - start;
+    }
+
+    boolean readBoolean() {
+        if (peek() == 't') {
+            expectLiteral("true");
+            return true;
+        }
+        expectLiteral("false");
+        return false;
+    }
+
+    // Skips one complete value of any type (unknown keys)
+    void skipValue() {
+        byte b = peek();
+        switch (b) {
+            case '"' -> readRawString();
+            case '{', '[' -> {
+                int depth = 0;
+                do {
+                    // Every byte read here is checked against limit: truncated input, or an NDJSON
+                    // line that ends inside the value, must fail as malformed rather than run past it
+                    if (position >= limit) {
+                        throw error("Unterminated " + (b == '{' ? "object" : "array"));
+                    }
+                    byte c = input[position];
+                    if (c == '"') {
+                        readRawString();
+                        continue;
+                    }
+                    if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        depth--;
+                    }
+                    position++;
+                } while (depth > 0);
+            }
+            case 't' -> expectLiteral("true");
+            case 'f' -> expectLiteral("false");
+            case 'n' -> expectLiteral("null");
+            default -> readNumberText();
+        }
+    }
+
+    private void expectLiteral(String literal) {
+        skipWhitespace();
+        int length = literal.length();
+        if (position + length > limit) {
+            throw error("Expected " + literal);
+        }
+        for (int i = 0; i < length; i++) {
+            if (input[position + i] != literal.charAt(i)) {
+                throw error("Expected " + literal);
+            }
+        }
+        position += length;
+    }
+
+    private void skipWhitespace() {
+        byte[] bytes = input;
+        int i = position;
+        while (i < limit) {
+            byte b = bytes[i];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            i++;
+        }
+        position = i;
+    }
+
+    // Offsets in messages are relative to the start of the current input (or NDJSON line)
+    JsonSerializationException error(String message) {
+        return new JsonSerializationException("Malformed JSON at offset " + (position - start) + ": " + message);
+    }
+}
@@ -0,0 +1,101 @@
+package annotations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Unknown keys and truncated input. Unknown fields of any shape (nested objects and arrays,
+// strings holding brackets) are skipped; input that ends inside a value must fail with
+// JsonSerializationException, never with an index error, also when an NDJSON line ends early
+// and more lines follow in the same buffer. So must malformed numbers and escapes, with the
+// offset of the error (and in NDJSON its line), never a bare NumberFormatException.
+public class JsonReaderEdgeCases {
+    // The remaining Customer fields, which its @Init method needs (it also capitalizes firstName)
+    private static final String REST = "\"lastName\":\"connor\",\"successfulTransactionFormatted\":\"75\"}";
+    private static final JsonToModelConverter converter = new JsonToModelConverter();
+    private static int failures;
+
+    public static void main(String[] args) {
+        parses("{\"unknown\":{\"a\":\"b\",\"c\":[1,{\"d\":\"}]\"}]},\"firstName\":\"sarah\"," + REST);
+        parses("{\"unknown\":[\"b\",[],{}],\"firstName\":\"sarah\"," + REST);
+        parses("{\"unknown\":\"{[\",\"firstName\":\"sarah\"," + REST);
+
+        rejects("{\"unknown\":{\"a\":\"b\"");
+        rejects("{\"unknown\":[\"b\"");
+        rejects("{\"unknown\":{\"a\":");
+        rejects("{\"unknown\":[");
+        rejects("{\"unknown\":{\"a\":\"b");
+        rejectsNdjson("{\"unknown\":{\"a\":\"b\"\n{\"firstName\":\"sarah\"}\n");
+        rejectsNdjson("{\"unknown\":[\"b\"\n{\"firstName\":\"sarah\"}\n");
+
+        parses(CustomerAccount.class, "{\"balance\":-1.5e2,\"accountNumber\":7}");
+        parses(CustomerAccount.class, "{\"balance\":\"2500.75\",\"unknown\":-0.5E+3}");
+        rejects(Customer.class, "{\"firstName\":\"\\uzzzz\"}");
+        rejects(CustomerAccount.class, "{\"balance\":1-2}");
+        rejects(CustomerAccount.class, "{\"balance\":-}");
+        rejects(CustomerAccount.class, "{\"balance\":1.}");
+        rejects(CustomerAccount.class, "{\"balance\":1e}");
+        rejects(CustomerAccount.class, "{\"balance\":\"abc\"}");
+        rejects(CustomerAccount.class, "{\"balance\":1e99999999999}");
+        rejects(CustomerAccount.class, "{\"unknown\":-}");
+        rejectsNdjson("{\"firstName\":\"sarah\"," + REST + "\n{\"firstName\":\"\\u12G4\"}\n");
+
+        if (failures > 0) {
+            System.err.println("FAILED: " + failures + " case(s)");
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+
+    private static void parses(Class<?> type, String json) {
+        try {
+            converter.convertFromJson(json, type);
+        } catch (RuntimeException exception) {
+            fail(json, exception.toString());
+        }
+    }
+
+    private static void parses(String json) {
+        try {
+            Customer customer = converter.convertFromJson(json, Customer.class);
+            if (!"Sarah".equals(customer.getFirstName())) {
+                fail(json, "firstName is " + customer.getFirstName());
+            }
+        } catch (RuntimeException exception) {
+            fail(json, exception.toString());
+        }
+    }
+
+    private static void rejects(String json) {
+        rejects(Customer.class, json);
+    }
+
+    private static void rejects(Class<?> type, String json) {
+        try {
+            converter.convertFromJson(json, type);
+            fail(json, "accepted");
+        } catch (JsonSerializationException expected) {
+            System.out.println("ok  " + json + "  ->  " + expected.getMessage());
+        } catch (RuntimeException exception) {
+            fail(json, exception.toString());
+        }
+    }
+
+    private static void rejectsNdjson(String feed) {
+        byte[] bytes = feed.getBytes(StandardCharsets.UTF_8);
+        List<Customer> parsed = new ArrayList<>();
+        try {
+            converter.convertFromNdjson(bytes, 0, bytes.length, Customer.class, parsed::add);
+            fail(feed, "accepted, " + parsed.size() + " line(s)");
+        } catch (JsonSerializationException expected) {
+            System.out.println("ok  " + feed.replace("\n", "\\n") + "  ->  " + expected.getMessage());
+        } catch (RuntimeException exception) {
+            fail(feed, exception.toString());
+        }
+    }
+
+    private static void fail(String json, String reason) {
+        failures++;
+        System.err.println("FAIL " + json.replace("\n", "\\n") + "  ->  " + reason);
+    }
+}
@@ -0,0 +1,132 @@
+package annotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// The reverse of ModelToJsonConverter: JSON (UTF-8 bytes) into @JsonSerializable models,
+// honouring @JsonElement(key=...) and running @Init methods once the model is populated.
+// See CompiledDeserializer for how models are created.
+//
+// The converter keeps its tokenizer and NDJSON read buffer between calls, so parsing a feed
+// allocates little more than the models and their field values. That makes an instance
+// NOT thread-safe: use one converter per thread.
+public class JsonToModelConverter {
+    private static final int INITIAL_STREAM_BUFFER = 64 * 1024;
+
+    private final JsonReader reader = new JsonReader();
+    private byte[] streamBuffer;
+
+    public <T> T convertFromJson(String json, Class<T> type) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return convertFromJson(bytes, 0, bytes.length, type);
+    }
+
+    public <T> T convertFromJson(byte[] json, Class<T> type) {
+        return convertFromJson(json, 0, json.length, type);
+    }
+
+    public <T> T convertFromJson(byte[] json, int offset, int length, Class<T> type) {
+        CompiledDeserializer deserializer = CompiledDeserializer.forClass(type);
+        reader.reset(json, offset, length);
+        Object model = deserializer.read(reader, 0);
+        if (reader.hasMore()) {
+            throw reader.error("Unexpected data after the object");
+        }
+        return type.cast(model);
+    }
+
+    // Reads the buffer's remaining bytes and advances its position past them
+    public <T> T convertFromJson(ByteBuffer json, Class<T> type) {
+        int length = json.remaining();
+        T model;
+        if (json.hasArray()) {
+            model = convertFromJson(json.array(), json.arrayOffset() + json.position(), length, type);
+        } else {
+            // Direct buffers are copied into the reusable stream buffer first
+            byte[] bytes = ensureStreamBuffer(length);
+            json.duplicate().get(bytes, 0, length);
+            model = convertFromJson(bytes, 0, length, type);
+        }
+        json.position(json.limit());
+        return model;
+    }
+
+    // NDJSON: one object per line, each handed to the consumer as soon as its line is complete.
+    // The stream is read in large blocks; a line split across two blocks is moved to the front of
+    // the buffer and completed by the next read, so the stream is never read byte by byte.
+    public <T> void convertFromNdjson(InputStream in, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        CompiledDeserializer deserializer = CompiledDeserializer.forClass(type);
+        byte[] buffer = ensureStreamBuffer(INITIAL_STREAM_BUFFER);
+        int filled = 0;
+        long line = 1;
+        while (true) {
+            int read = in.read(buffer, filled, buffer.length - filled);
+            if (read < 0) {
+                break;
+            }
+            int scanFrom = filled;
+            filled += read;
+            int lineStart = 0;
+            for (int i = scanFrom; i < filled; i++) {
+                if (buffer[i] == '\n') {
+                    readLine(deserializer, type, buffer, lineStart, i - lineStart, line++, consumer);
+                    lineStart = i + 1;
+                }
+            }
+            // Keep the incomplete last line; grow only when a single line fills the whole buffer
+            System.arraycopy(buffer, lineStart, buffer, 0, filled - lineStart);
+            filled -= lineStart;
+            if (filled == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                streamBuffer = buffer;
+            }
+        }
+        // The last line may have no trailing newline
+        readLine(deserializer, type, buffer, 0, filled, line, consumer);
+    }
+
+    // In-memory NDJSON, parsed in place without copying
+    public <T> void convertFromNdjson(byte[] json, int offset, int length, Class<T> type, Consumer<? super T> consumer) {
+        CompiledDeserializer deserializer = CompiledDeserializer.forClass(type);
+        int end = offset + length;
+        int lineStart = offset;
+        long line = 1;
+        for (int i = offset; i < end; i++) {
+            if (json[i] == '\n') {
+                readLine(deserializer, type, json, lineStart, i - lineStart, line++, consumer);
+                lineStart = i + 1;
+            }
+        }
+        readLine(deserializer, type, json, lineStart, end - lineStart, line, consumer);
+    }
+
+    private <T> void readLine(CompiledDeserializer deserializer, Class<T> type, byte[] bytes, int offset, int length,
+                              long line, Consumer<? super T> consumer) {
+        reader.reset(bytes, offset, length);
+        // Blank lines (and the empty "line" after a final newline) are skipped
+        if (!reader.hasMore()) {
+            return;
+        }
+        Object model;
+        try {
+            model = deserializer.read(reader, 0);
+            if (reader.hasMore()) {
+                throw reader.error("Unexpected data after the object");
+            }
+        } catch (JsonSerializationException exception) {
+            throw new JsonSerializationException("NDJSON line " + line + ": " + exception.getMessage(), exception);
+        }
+        consumer.accept(type.cast(model));
+    }
+
+    private byte[] ensureStreamBuffer(int capacity) {
+        if (streamBuffer == null || streamBuffer.length < capacity) {
+            streamBuffer = new byte[Math.max(capacity, INITIAL_STREAM_BUFFER)];
+        }
+        return streamBuffer;
+    }
+}
@@ -0,0 +1,303 @@
+package annotations;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Streaming JSON output for @JsonSerializable models.
+// Models are written straight into a reusable UTF-8 byte[] buffer (no Map, no per-field Strings),
+// with proper string escaping, typed numbers/booleans/BigDecimal and nested models.
+//
+// Three ways to use it:
+//   new JsonWriter()                -> in-memory buffer: toByteArray(), toString(), reset() to reuse
+//   new JsonWriter(OutputStream)    -> buffer is written to the stream whenever it fills up
+//   new JsonWriter(Appendable)      -> same, decoded to chars (StringBuilder, Writer, ...)
+// A PrintStream (System.out) is both; it gets the OutputStream behaviour, as raw UTF-8 bytes.
+// With a sink, call flush() at the end. The buffer is only ever drained between complete
+// top-level values, so a multi-byte character is never split.
+public final class JsonWriter {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int FLUSH_THRESHOLD = 8192;
+    private static final int MAX_DEPTH = 64;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private final OutputStream out;
+    private final Appendable appendable;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+    private int depth;
+
+    public JsonWriter() {
+        this(null, null);
+    }
+
+    public JsonWriter(OutputStream out) {
+        this(out, null);
+    }
+
+    public JsonWriter(PrintStream out) {
+        this(out, null);
+    }
+
+    public JsonWriter(Appendable appendable) {
+        this(null, appendable);
+    }
+
+    private JsonWriter(OutputStream out, Appendable appendable) {
+        this.out = out;
+        this.appendable = appendable;
+    }
+
+    // Writes one @JsonSerializable model (running its @Init methods first) as a JSON object
+    public JsonWriter writeObject(Object model) throws IOException {
+        if (model == null) {
+            throw new JsonSerializationException("Serializing null object.");
+        }
+        writeModel(model);
+        drainIfFull();
+        return this;
+    }
+
+    // Separators for writing several values into one stream (JSON arrays, NDJSON lines)
+    public JsonWriter writeSeparator(char separator) throws IOException {
+        writeByte(separator);
+        drainIfFull();
+        return this;
+    }
+
+    // Pushes everything buffered so far to the sink (no-op for the in-memory mode)
+    public void flush() throws IOException {
+        drain();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // The internal buffer; only the first size() bytes are valid
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    // ---- value writers used by CompiledSerializer and the generated <Model>_JsonSerializer classes ----
+    // Public because generated serializers live in their model's package; they are low level:
+    // the caller is responsible for producing well-formed JSON.
+
+    void writeModel(Object model) throws IOException {
+        depth++;
+        try {
+            if (depth > MAX_DEPTH) {
+                throw new JsonSerializationException("Model nesting deeper than " + MAX_DEPTH + " levels (cyclic reference?)");
+            }
+            CompiledSerializer.forClass(model.getClass()).write(model, this);
+        } catch (JsonSerializationException exception) {
+            throw exception;
+        } catch (RuntimeException exception) {
+            // Thrown straight out of a generated serializer (an @Init method, a getter)
+            throw new JsonSerializationException("Cannot serialize " + model.getClass().getSimpleName() + ": " + exception, exception);
+        } finally {
+            depth--;
+        }
+    }
+
+    // Any value whose type is only known at runtime (boxed numbers, nested models, ...)
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            writeRaw(NULL);
+        } else if (value instanceof String string) {
+            writeString(string);
+        } else if (value instanceof BigDecimal decimal) {
+            writeAscii(decimal.toString());
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            writeLong(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Number number) {
+            // BigInteger, AtomicLong, ...: their toString() is a valid JSON number
+            writeAscii(number.toString());
+        } else if (value instanceof Boolean bool) {
+            writeBoolean(bool);
+        } else if (value.getClass().isAnnotationPresent(JsonSerializable.class)) {
+            writeModel(value);
+        } else {
+            writeString(String.valueOf(value));
+        }
+    }
+
+    public void writeString(String value) {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        int length = value.length();
+        // Worst case per char is a 6 byte \\u escape
+        ensureCapacity(length * 6 + 2);
+        byte[] bytes = buffer;
+        int position = size;
+        bytes[position++] = '"';
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    bytes[position++] = (byte) c;
+                } else {
+                    position = escape(bytes, position, c);
+                }
+            } else if (c < 0x800) {
+                bytes[position++] = (byte) (0xC0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                    bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+                } else {
+                    // A lone surrogate has no UTF-8 form; keep the output valid by escaping it
+                    position = unicodeEscape(bytes, position, c);
+                }
+            } else {
+                bytes[position++] = (byte) (0xE0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        bytes[position++] = '"';
+        size = position;
+    }
+
+    public void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[size++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int position = size + digits;
+        size = position;
+        do {
+            buffer[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+    }
+
+    public void writeDouble(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // JSON has no NaN or Infinity
+            writeRaw(NULL);
+        } else if (value == (long) value && Math.abs(value) < 1e15) {
+            writeLong((long) value);
+        } else {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        writeRaw(value ? TRUE : FALSE);
+    }
+
+    public void writeChar(char value) {
+        writeString(String.valueOf(value));
+    }
+
+    public void writeByte(char value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    public void writeRaw(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void writeAscii(String ascii) {
+        int length = ascii.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            buffer[size++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    private static int escape(byte[] bytes, int position, char c) {
+        bytes[position++] = '\\';
+        switch (c) {
+            case '"' -> bytes[position++] = '"';
+            case '\\' -> bytes[position++] = '\\';
+            case '\n' -> bytes[position++] = 'n';
+            case '\r' -> bytes[position++] = 'r';
+            case '\t' -> bytes[position++] = 't';
+            case '\b' -> bytes[position++] = 'b';
+            case '\f' -> bytes[position++] = 'f';
+            default -> {
+                return unicodeEscape(bytes, position - 1, c);
+            }
+        }
+        return position;
+    }
+
+    private static int unicodeEscape(byte[] bytes, int position, char c) {
+        bytes[position++] = '\\';
+        bytes[position++] = 'u';
+        bytes[position++] = HEX[c >> 12 & 0xF];
+        bytes[position++] = HEX[c >> 8 & 0xF];
+        bytes[position++] = HEX[c >> 4 & 0xF];
+        bytes[position++] = HEX[c & 0xF];
+        return position;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    private void drainIfFull() throws IOException {
+        if (size >= FLUSH_THRESHOLD) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (size == 0) {
+            return;
+        }
+        if (out != null) {
+            out.write(buffer, 0, size);
+            size = 0;
+        } else if (appendable != null) {
+            appendable.append(new String(buffer, 0, size, StandardCharsets.UTF_8));
+            size = 0;
+        }
+    }
+}
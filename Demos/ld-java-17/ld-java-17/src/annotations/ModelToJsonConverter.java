@@ -1,5 +1,9 @@
 package annotations;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -72,7 +76,47 @@ public class ModelToJsonConverter {
       }
     }
 
+    // Fast path: no reflection lookups after the first call for a class, no intermediate Map.
+    // Non-String fields, BigDecimal and nested @JsonSerializable models are supported; see JsonWriter.
+    // Uses the serializer generated by the json-processor module when the model was compiled with it,
+    // else a MethodHandle-based one built on first use (see CompiledSerializer.forClass).
     public String convertToJson(Object object) throws JsonSerializationException {
+        JsonWriter writer = new JsonWriter();
+        try {
+            writer.writeObject(object);
+        } catch (IOException exception) {
+            // The in-memory writer has no sink, so this cannot happen
+            throw new UncheckedIOException(exception);
+        }
+        return writer.toString();
+    }
+
+    // Streams the model straight to an OutputStream / Appendable without building a String
+    public void convertToJson(Object object, OutputStream out) throws IOException {
+        new JsonWriter(out).writeObject(object).flush();
+    }
+
+    public void convertToJson(Object object, Appendable out) throws IOException {
+        new JsonWriter(out).writeObject(object).flush();
+    }
+
+    // A PrintStream is both of the above; written as bytes, like any OutputStream
+    public void convertToJson(Object object, PrintStream out) throws IOException {
+        new JsonWriter(out).writeObject(object).flush();
+    }
+
+    // Bulk mode: all models as one JSON array, serialized in parallel chunks (see BulkJsonExporter)
+    public void convertAllToJson(Iterable<?> models, OutputStream out) throws IOException {
+        convertAllToJson(models, out, BulkJsonExporter.Format.JSON_ARRAY);
+    }
+
+    public void convertAllToJson(Iterable<?> models, OutputStream out, BulkJsonExporter.Format format) throws IOException {
+        new BulkJsonExporter().export(models, out, format);
+    }
+
+    // The original lab implementation: re-scans fields and methods on every call.
+    // Kept as the baseline for ConverterBenchmark.
+    public String convertToJsonReflective(Object object) throws JsonSerializationException {
        try {
            checkIfSerializable(object);
            initializeModel(object);
@@ -0,0 +1,61 @@
+package designpatterns.behavioral;
+
+import java.time.Duration;
+
+// A closed OHLC bar, as passed to BarObserver.onBar(). The BarAggregator reuses one instance for
+// every bar it reports, so an observer must copy what it keeps before onBar() returns.
+public final class Bar {
+    String symbol;
+    Duration window;
+    long startTime;
+    long open;
+    long high;
+    long low;
+    long close;
+    long volume;
+    long notional;
+
+    public String symbol() {
+        return symbol;
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    // In the aggregator's timestamp unit, aligned to a multiple of the window
+    public long startTime() {
+        return startTime;
+    }
+
+    public double open() {
+        return PriceTick.toPrice(open);
+    }
+
+    public double high() {
+        return PriceTick.toPrice(high);
+    }
+
+    public double low() {
+        return PriceTick.toPrice(low);
+    }
+
+    public double close() {
+        return PriceTick.toPrice(close);
+    }
+
+    public long volume() {
+        return volume;
+    }
+
+    // Volume weighted average price: sum(price * quantity) / sum(quantity)
+    public double vwap() {
+        return volume == 0 ? Double.NaN : (double) notional / volume / PriceTick.TICKS_PER_UNIT;
+    }
+
+    @Override
+    public String toString() {
+        return symbol + " " + window + " @" + startTime + " O " + open() + " H " + high() + " L " + low()
+                + " C " + close() + " V " + volume + " VWAP " + vwap();
+    }
+}
@@ -0,0 +1,73 @@
+package designpatterns.behavioral;
+
+import java.time.Duration;
+
+// 50,000 symbols, 1s / 1m / 5m bars, six minutes of simulated trading at 100,000 trades per
+// second (event time, so it runs as fast as the aggregator allows). Prints the cost per trade,
+// the bars produced per window, the memory the aggregator holds, and a few closed bars.
+// Then the classic Observer wiring: the aggregator as a StockPriceSubject observer.
+public class BarAggregationDemo {
+    private static final int SYMBOLS = 50_000;
+    private static final int TRADES_PER_SECOND = 100_000;
+    private static final int SECONDS = 6 * 60;
+
+    public static void main(String[] args) throws InterruptedException {
+        SymbolTable symbols = new SymbolTable(SYMBOLS);
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols.idOf("SYM" + i);
+        }
+        long[] barsPerWindow = new long[3];
+        Duration[] windows = {Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(5)};
+
+        long heapBefore = usedHeap();
+        BarAggregator aggregator = new BarAggregator(symbols, bar -> {
+            for (int w = 0; w < windows.length; w++) {
+                if (bar.window() == windows[w]) {
+                    barsPerWindow[w]++;
+                }
+            }
+            if (bar.symbol().equals("SYM0") && (bar.window() != windows[0] || bar.startTime() < 3_000)) {
+                System.out.println("  " + bar);
+            }
+        }, windows);
+        long aggregatorBytes = usedHeap() - heapBefore;
+
+        System.out.println("Closed bars of SYM0 (1s bars: first three only):");
+        long trades = (long) TRADES_PER_SECOND * SECONDS;
+        long start = System.nanoTime();
+        for (long trade = 0; trade < trades; trade++) {
+            // Milliseconds of event time, trades spread evenly over each second
+            long timestamp = trade * 1_000 / TRADES_PER_SECOND;
+            int symbolId = (int) ((trade * 7_919) % SYMBOLS);
+            long price = 1_000_000 + (trade % 977) * 100;
+            aggregator.onTrade(symbolId, price, 1 + trade % 10, timestamp);
+        }
+        // End of the session: the bars that are over by then close (the last 5m bar is not over yet)
+        aggregator.advanceTo(SECONDS * 1_000L);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println(trades + " trades, " + SYMBOLS + " symbols : " + elapsed / trades + " ns/trade");
+        for (int w = 0; w < windows.length; w++) {
+            System.out.println("  " + windows[w] + " bars : " + barsPerWindow[w]);
+        }
+        System.out.println("Aggregator state : about " + aggregatorBytes / (1024 * 1024) + " MB ("
+                + aggregatorBytes / SYMBOLS + " bytes per symbol)");
+
+        // As an observer of the subject: price-only ticks, wall-clock time, volume = number of ticks
+        StockPriceSubject subject = new StockPriceSubject();
+        BarAggregator secondBars = new BarAggregator(new SymbolTable(16),
+                bar -> System.out.println("Bar closed : " + bar), Duration.ofSeconds(1));
+        subject.addObserver(secondBars);
+        subject.setStockPrice("AAPL", 150.50);
+        subject.setStockPrice("AAPL", 151.25);
+        subject.setStockPrice("AAPL", 150.75);
+        Thread.sleep(1_000);
+        secondBars.advanceTo(System.currentTimeMillis());
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,181 @@
+package designpatterns.behavioral;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Turns ticks into OHLC bars (open, high, low, close, volume, VWAP) per symbol and per window,
+// for instance 1s / 1m / 5m, and notifies a BarObserver when a bar closes, not per tick.
+//
+//   BarAggregator bars = new BarAggregator(symbols, barObserver, Duration.ofSeconds(1), Duration.ofMinutes(1));
+//   stockPriceSubject.addObserver(bars);     // price-only ticks: volume counts ticks, time from the clock
+//   ring.addHandler(bars);                   // or from a TickRingBuffer, with quantity and timestamp
+//
+// State is fixed per symbol: for each window one row of 8 longs in a primitive array
+// (bar start, open, high, low, close, volume, sum of price * quantity, start of the last closed
+// bar), indexed by the symbol's SymbolTable id. A tick updates one row per window, O(1);
+// 50,000 symbols x 3 windows is about 9 MB.
+//
+// Bars are aligned to multiples of their window. A bar closes when a later tick of its symbol
+// starts the next one, or when time moves past its end: once per smallest window, the aggregator
+// sweeps all rows for bars that are over (so a symbol that stopped trading still gets its bar).
+// Time is event time, the ticks' timestamps; advanceTo() moves it on when the feed is idle.
+// A tick older than its symbol's current bar is counted in that bar, unless its own bar has
+// already been closed and reported: such a late tick is dropped for that window and counted
+// (see lateTicks()), so a reported bar is never reopened and reported twice.
+//
+// Not thread-safe: feed it from one thread (a TickRingBuffer handler, a synchronous subject's
+// publisher, or the mailbox of an asynchronous one).
+public final class BarAggregator implements StockPriceObserver, TickHandler {
+    private static final int START = 0;
+    private static final int OPEN = 1;
+    private static final int HIGH = 2;
+    private static final int LOW = 3;
+    private static final int CLOSE = 4;
+    private static final int VOLUME = 5;
+    private static final int NOTIONAL = 6;
+    private static final int CLOSED_START = 7;
+    private static final int FIELDS = 8;
+    private static final long NO_BAR = Long.MIN_VALUE;
+
+    private final SymbolTable symbols;
+    private final BarObserver observer;
+    private final LongSupplier clock;
+    private final Duration[] windows;
+    // Window lengths in timestamp units
+    private final long[] lengths;
+    private final long sweepLength;
+    // Per window: FIELDS longs per symbol id
+    private final long[][] rows;
+    // Per window: ticks dropped because their bar had already closed
+    private final long[] lateTicks;
+    private final Bar bar = new Bar();
+    private long nextSweep = Long.MAX_VALUE;
+
+    // Timestamps in milliseconds; price-only updates are stamped with System.currentTimeMillis()
+    public BarAggregator(SymbolTable symbols, BarObserver observer, Duration... windows) {
+        this(symbols, observer, TimeUnit.MILLISECONDS, System::currentTimeMillis, windows);
+    }
+
+    // timestampUnit: unit of the ticks' timestamps and of the clock used for price-only updates
+    public BarAggregator(SymbolTable symbols, BarObserver observer, TimeUnit timestampUnit, LongSupplier clock,
+                         Duration... windows) {
+        if (windows.length == 0) {
+            throw new IllegalArgumentException("At least one window is required");
+        }
+        this.symbols = symbols;
+        this.observer = observer;
+        this.clock = clock;
+        this.windows = windows.clone();
+        this.lengths = new long[windows.length];
+        this.rows = new long[windows.length][];
+        this.lateTicks = new long[windows.length];
+        long shortest = Long.MAX_VALUE;
+        for (int w = 0; w < windows.length; w++) {
+            lengths[w] = timestampUnit.convert(windows[w]);
+            if (lengths[w] < 1) {
+                throw new IllegalArgumentException("Window " + windows[w] + " is shorter than one " + timestampUnit);
+            }
+            shortest = Math.min(shortest, lengths[w]);
+            rows[w] = new long[symbols.capacity() * FIELDS];
+            for (int symbol = 0; symbol < symbols.capacity(); symbol++) {
+                rows[w][symbol * FIELDS + START] = NO_BAR;
+                rows[w][symbol * FIELDS + CLOSED_START] = NO_BAR;
+            }
+        }
+        this.sweepLength = shortest;
+    }
+
+    // StockPriceSubject observer: a price without quantity counts as volume 1, stamped by the clock
+    @Override
+    public void update(String stockSymbol, double newPrice) {
+        onTrade(symbols.idOf(stockSymbol), PriceTick.toTicks(newPrice), 1, clock.getAsLong());
+    }
+
+    // TickRingBuffer handler
+    @Override
+    public void onTick(PriceTick tick, boolean endOfBatch) {
+        onTrade(tick.symbolId, tick.priceTicks, tick.quantity, tick.timestamp);
+    }
+
+    public void onTrade(int symbolId, long priceTicks, long quantity, long timestamp) {
+        if (timestamp >= nextSweep) {
+            advanceTo(timestamp);
+        } else if (nextSweep == Long.MAX_VALUE) {
+            nextSweep = boundaryAfter(timestamp, sweepLength);
+        }
+        int row = symbolId * FIELDS;
+        long notional = priceTicks * quantity;
+        for (int w = 0; w < rows.length; w++) {
+            long[] bars = rows[w];
+            long start = timestamp - Math.floorMod(timestamp, lengths[w]);
+            if (start <= bars[row + CLOSED_START]) {
+                lateTicks[w]++;
+            } else if (start > bars[row + START]) {
+                if (bars[row + START] != NO_BAR) {
+                    closeBar(w, symbolId);
+                }
+                bars[row + START] = start;
+                bars[row + OPEN] = priceTicks;
+                bars[row + HIGH] = priceTicks;
+                bars[row + LOW] = priceTicks;
+                bars[row + CLOSE] = priceTicks;
+                bars[row + VOLUME] = quantity;
+                bars[row + NOTIONAL] = notional;
+            } else {
+                bars[row + HIGH] = Math.max(bars[row + HIGH], priceTicks);
+                bars[row + LOW] = Math.min(bars[row + LOW], priceTicks);
+                bars[row + CLOSE] = priceTicks;
+                bars[row + VOLUME] += quantity;
+                bars[row + NOTIONAL] += notional;
+            }
+        }
+    }
+
+    // Closes every bar that ends at or before now. Called by the aggregator as ticks arrive; call it
+    // yourself (from the feeding thread) to get bars out of a feed that has gone quiet.
+    public void advanceTo(long now) {
+        int symbolCount = symbols.size();
+        for (int w = 0; w < rows.length; w++) {
+            long[] bars = rows[w];
+            for (int symbolId = 0; symbolId < symbolCount; symbolId++) {
+                long start = bars[symbolId * FIELDS + START];
+                if (start != NO_BAR && now >= start + lengths[w]) {
+                    closeBar(w, symbolId);
+                    bars[symbolId * FIELDS + START] = NO_BAR;
+                }
+            }
+        }
+        nextSweep = boundaryAfter(now, sweepLength);
+    }
+
+    // Ticks left out of the given window's bars because they arrived after their bar had closed
+    public long lateTicks(Duration window) {
+        for (int w = 0; w < windows.length; w++) {
+            if (windows[w].equals(window)) {
+                return lateTicks[w];
+            }
+        }
+        throw new IllegalArgumentException("No " + window + " window");
+    }
+
+    private void closeBar(int w, int symbolId) {
+        long[] bars = rows[w];
+        int row = symbolId * FIELDS;
+        bar.symbol = symbols.symbol(symbolId);
+        bar.window = windows[w];
+        bar.startTime = bars[row + START];
+        bar.open = bars[row + OPEN];
+        bar.high = bars[row + HIGH];
+        bar.low = bars[row + LOW];
+        bar.close = bars[row + CLOSE];
+        bar.volume = bars[row + VOLUME];
+        bar.notional = bars[row + NOTIONAL];
+        bars[row + CLOSED_START] = bar.startTime;
+        observer.onBar(bar);
+    }
+
+    private static long boundaryAfter(long time, long length) {
+        return time - Math.floorMod(time, length) + length;
+    }
+}
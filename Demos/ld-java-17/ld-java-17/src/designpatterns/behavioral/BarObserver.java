@@ -0,0 +1,6 @@
+package designpatterns.behavioral;
+
+// Notified by a BarAggregator once per bar, when the bar closes
+public interface BarObserver {
+    void onBar(Bar bar);
+}
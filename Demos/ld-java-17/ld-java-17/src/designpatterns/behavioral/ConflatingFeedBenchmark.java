@@ -0,0 +1,71 @@
+package designpatterns.behavioral;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// A market burst: 1,000,000 ticks over 10,000 symbols, 100 investors.
+//   direct      StockPriceSubject.setStockPrice per tick: ticks x observers update() calls
+//   conflated   StockService with a ConflatingPriceStore, published once after the burst:
+//               symbols x observers update() calls, each with the symbol's latest price
+// Investors only count their notifications (no println), so the numbers show the fan-out itself.
+public class ConflatingFeedBenchmark {
+    private static final int SYMBOLS = 10_000;
+    private static final int TICKS = 1_000_000;
+    private static final int INVESTORS = 100;
+
+    private static final String[] symbols = new String[SYMBOLS];
+
+    public static void main(String[] args) {
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols[i] = "SYM" + i;
+        }
+        // Warm-up
+        for (int i = 0; i < 3; i++) {
+            direct();
+            conflated();
+        }
+
+        long start = System.nanoTime();
+        long directCalls = direct();
+        long directTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long conflatedCalls = conflated();
+        long conflatedTime = System.nanoTime() - start;
+
+        System.out.println("Burst : " + TICKS + " ticks, " + SYMBOLS + " symbols, " + INVESTORS + " investors");
+        System.out.println("Direct    : " + directCalls + " notifications in " + directTime / 1_000_000 + " ms");
+        System.out.println("Conflated : " + conflatedCalls + " notifications in " + conflatedTime / 1_000_000 + " ms");
+    }
+
+    private static long direct() {
+        LongAdder notifications = new LongAdder();
+        StockPriceSubject subject = subjectWithInvestors(notifications);
+        for (int tick = 0; tick < TICKS; tick++) {
+            subject.setStockPrice(symbols[tick % SYMBOLS], 100 + tick * 0.01);
+        }
+        return notifications.sum();
+    }
+
+    private static long conflated() {
+        LongAdder notifications = new LongAdder();
+        StockService service = new StockService(subjectWithInvestors(notifications), new ConflatingPriceStore(SYMBOLS));
+        for (int tick = 0; tick < TICKS; tick++) {
+            service.updateStockPrice(symbols[tick % SYMBOLS], 100 + tick * 0.01);
+        }
+        service.publishLatestPrices();
+        // The last tick of the burst is what everyone should see
+        double expected = 100 + (TICKS - 1) * 0.01;
+        if (service.latestPrice(symbols[(TICKS - 1) % SYMBOLS]) != expected) {
+            throw new IllegalStateException("Latest price lost");
+        }
+        return notifications.sum();
+    }
+
+    private static StockPriceSubject subjectWithInvestors(LongAdder notifications) {
+        StockPriceSubject subject = new StockPriceSubject();
+        for (int i = 0; i < INVESTORS; i++) {
+            subject.addObserver((stockSymbol, newPrice) -> notifications.increment());
+        }
+        return subject;
+    }
+}
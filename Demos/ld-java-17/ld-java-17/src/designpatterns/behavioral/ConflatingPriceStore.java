@@ -0,0 +1,114 @@
+package designpatterns.behavioral;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Latest price per symbol, for feeds where observers only care about the newest value.
+//
+//   store.update("AAPL", 150.5);          // publisher: O(1), no observer is called
+//   store.latestPrice("AAPL")             // anyone, any time: lock-free read
+//   store.drain(subject::setStockPrice)   // delivery: each symbol that changed since the last
+//                                         // drain once, with its newest price
+//
+// A burst of T ticks over S symbols costs T cheap updates plus at most S deliveries per drain,
+// instead of T deliveries to every observer.
+//
+// Each symbol gets an id from a SymbolTable; everything else lives in primitive arrays indexed by it:
+//   prices     double bits of the last price
+//   sequences  seqlock counter: odd while an update is being written, +2 per update, so the
+//              (price, sequence) pair is read consistently without locks
+//   dirty      bitmap of symbols updated since the last drain; a drain scans maxSymbols / 64 words
+public final class ConflatingPriceStore {
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final SymbolTable symbols;
+    private final long[] prices;
+    private final long[] sequences;
+    private final long[] dirty;
+
+    public ConflatingPriceStore(int maxSymbols) {
+        this(new SymbolTable(maxSymbols));
+    }
+
+    // Shares the symbol ids with other per-symbol stages (a TickRingBuffer, for instance)
+    public ConflatingPriceStore(SymbolTable symbols) {
+        int maxSymbols = symbols.capacity();
+        this.symbols = symbols;
+        this.prices = new long[maxSymbols];
+        this.sequences = new long[maxSymbols];
+        this.dirty = new long[(maxSymbols + 63) >>> 6];
+    }
+
+    // Records the new price and returns the symbol's update count (1 for its first price)
+    public long update(String stockSymbol, double price) {
+        int index = symbols.idOf(stockSymbol);
+        long sequence;
+        // Claim the slot: even -> odd. Concurrent publishers of the same symbol wait their turn.
+        do {
+            sequence = (long) LONGS.getVolatile(sequences, index);
+        } while ((sequence & 1) != 0 || !LONGS.compareAndSet(sequences, index, sequence, sequence + 1));
+        LONGS.setVolatile(prices, index, Double.doubleToRawLongBits(price));
+        LONGS.setVolatile(sequences, index, sequence + 2);
+        // Already set when the symbol changed again before a drain: that is the conflation
+        LONGS.getAndBitwiseOr(dirty, index >>> 6, 1L << index);
+        return (sequence + 2) >>> 1;
+    }
+
+    // Last price of the symbol, NaN if it has none yet
+    public double latestPrice(String stockSymbol) {
+        int index = symbols.find(stockSymbol);
+        if (index < 0 || (long) LONGS.getVolatile(sequences, index) == 0) {
+            return Double.NaN;
+        }
+        return priceAt(index);
+    }
+
+    // Number of updates of the symbol so far
+    public long sequence(String stockSymbol) {
+        int index = symbols.find(stockSymbol);
+        return index < 0 ? 0 : stableSequence(index) >>> 1;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    // Delivers every symbol updated since the previous drain once, with its newest price, and
+    // returns how many were delivered. One thread drains at a time; updates may continue meanwhile
+    // (a symbol updated during the drain is delivered now or by the next drain, never lost).
+    public synchronized int drain(StockPriceObserver observer) {
+        int delivered = 0;
+        for (int word = 0; word < dirty.length; word++) {
+            if ((long) LONGS.getVolatile(dirty, word) == 0) {
+                continue;
+            }
+            long bits = (long) LONGS.getAndSet(dirty, word, 0L);
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                observer.update(symbols.symbol(index), priceAt(index));
+                delivered++;
+            }
+        }
+        return delivered;
+    }
+
+    private double priceAt(int index) {
+        while (true) {
+            long sequence = stableSequence(index);
+            double price = Double.longBitsToDouble((long) LONGS.getVolatile(prices, index));
+            if ((long) LONGS.getVolatile(sequences, index) == sequence) {
+                return price;
+            }
+        }
+    }
+
+    // Waits out an update in progress (odd sequence); updates are a few stores long
+    private long stableSequence(int index) {
+        long sequence;
+        while (((sequence = (long) LONGS.getVolatile(sequences, index)) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+        return sequence;
+    }
+}
@@ -13,12 +13,43 @@ public class Main {
         // Add investors as observers to the stock price subject
         stockPriceSubject.addObserver(dinesh);
         stockPriceSubject.addObserver(mahalingam);
+        // Priya only follows GOOG : she is not notified of AAPL at all
+        stockPriceSubject.subscribe("GOOG", priya);
 
-        // Create the stock service to update price
-        StockService stockService = new StockService(stockPriceSubject);
+        // Create the stock service to update price, logging each update for the demo
+        StockService stockService = new StockService(stockPriceSubject, true);
 
         // Simulate stock updates sequentially
         stockService.updateStockPrice("AAPL", 150.50 );
         stockService.updateStockPrice("AAPL", 151.50 );
+        stockService.updateStockPrice("GOOG", 170.25 );
+
+        // Asynchronous delivery : a slow investor no longer holds up the price feed
+        // Each observer gets its own mailbox of up to 16 pending ticks
+        try (StockPriceSubject asyncSubject = new StockPriceSubject(16, OverflowPolicy.DROP_OLDEST)) {
+            StockPriceObserver slowInvestor = (stockSymbol, newPrice) -> {
+                sleep(100);
+                System.out.println("Slow investor notified. " + stockSymbol + " new price : $" + newPrice);
+            };
+            asyncSubject.addObserver(priya);
+            // The slow investor only wants the newest price : pending ticks for MSFT are conflated into one
+            asyncSubject.addObserver(slowInvestor, OverflowPolicy.CONFLATE);
+
+            long start = System.nanoTime();
+            for (int tick = 0; tick < 10; tick++) {
+                asyncSubject.setStockPrice("MSFT", 400 + tick);
+            }
+            System.out.println("10 ticks published in " + (System.nanoTime() - start) / 1_000 + " us");
+            sleep(150);
+            System.out.println("Ticks conflated for the slow investor : " + asyncSubject.droppedTicks(slowInvestor));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
     }
 }
@@ -0,0 +1,19 @@
+package designpatterns.behavioral;
+
+// Lets an existing StockPriceObserver (an Investor, or a StockPriceSubject's setStockPrice to fan
+// out further) consume a TickRingBuffer. The symbol String comes from the SymbolTable and the
+// price is converted back to a double, so the adapter itself allocates nothing.
+public final class ObserverTickAdapter implements TickHandler {
+    private final StockPriceObserver observer;
+    private final SymbolTable symbols;
+
+    public ObserverTickAdapter(StockPriceObserver observer, SymbolTable symbols) {
+        this.observer = observer;
+        this.symbols = symbols;
+    }
+
+    @Override
+    public void onTick(PriceTick tick, boolean endOfBatch) {
+        observer.update(symbols.symbol(tick.symbolId), tick.price());
+    }
+}
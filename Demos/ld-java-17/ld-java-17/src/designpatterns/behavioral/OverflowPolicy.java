@@ -0,0 +1,12 @@
+package designpatterns.behavioral;
+
+// What an asynchronous StockPriceSubject does when an observer's mailbox is full
+public enum OverflowPolicy {
+    // Discard the oldest pending tick to make room: the observer skips ticks, never falls further behind
+    DROP_OLDEST,
+    // Wait for the observer to catch up: nothing is lost, but a slow observer eventually slows the publisher
+    BLOCK,
+    // Keep only the newest pending price per symbol: the observer always gets the latest price
+    // of every symbol that changed, and the mailbox holds at most one tick per symbol
+    CONFLATE
+}
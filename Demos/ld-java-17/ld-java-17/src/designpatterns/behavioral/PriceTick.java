@@ -0,0 +1,49 @@
+package designpatterns.behavioral;
+
+// One slot of a TickRingBuffer. Slots are allocated once with the ring and overwritten by every
+// lap of the producer, so a handler must copy what it needs before onTick() returns.
+// Prices are fixed point: priceTicks = price * TICKS_PER_UNIT (1/10,000 of a dollar).
+public final class PriceTick {
+    public static final long TICKS_PER_UNIT = 10_000;
+
+    int symbolId;
+    long priceTicks;
+    long quantity;
+    long timestamp;
+    long sequence;
+
+    public int symbolId() {
+        return symbolId;
+    }
+
+    public long priceTicks() {
+        return priceTicks;
+    }
+
+    // Traded quantity; 1 for price-only feeds
+    public long quantity() {
+        return quantity;
+    }
+
+    // Whatever clock the producer uses (System.nanoTime(), exchange time, ...)
+    public long timestamp() {
+        return timestamp;
+    }
+
+    // Position in the feed: 0, 1, 2, ... without gaps
+    public long sequence() {
+        return sequence;
+    }
+
+    public double price() {
+        return toPrice(priceTicks);
+    }
+
+    public static long toTicks(double price) {
+        return Math.round(price * TICKS_PER_UNIT);
+    }
+
+    public static double toPrice(long priceTicks) {
+        return (double) priceTicks / TICKS_PER_UNIT;
+    }
+}
@@ -1,40 +1,507 @@
 package designpatterns.behavioral;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 //Subject : StockPriceSubject notifies observers about stock price changes
-public class StockPriceSubject {
-    private List<StockPriceObserver> observers = new ArrayList<>();
+//
+// Two delivery modes:
+//  - synchronous (StockPriceSubject(), StockPriceSubject(symbol)): update() runs on the publisher
+//    thread, one observer after the other, so a slow observer stalls every tick
+//  - asynchronous (StockPriceSubject(queueCapacity, policy), or with an Executor): setStockPrice()
+//    hands the tick to a dispatcher thread and returns, whatever the number of observers. The
+//    dispatcher puts it in each observer's own bounded mailbox, and each mailbox is drained by a
+//    task on the executor (on JDK 21, Executors.newVirtualThreadPerTaskExecutor() gives every
+//    observer a virtual thread). A slow observer only fills its own mailbox; what happens then is
+//    its OverflowPolicy.
+// The registry is copy-on-write: observers can be added and removed while ticks are published.
+//
+// addObserver() observers receive every symbol. subscribe() / subscribePrefix() observers are
+// kept in a SubscriptionIndex and only receive their symbols: a tick costs O(interested observers),
+// not O(all observers). In asynchronous mode an observer has one mailbox, whether it was added,
+// subscribed to many symbols, or both: one queue bounds its backlog and keeps its ticks in order.
+public class StockPriceSubject implements AutoCloseable {
+    // Mailbox tasks give their executor thread back after this many deliveries
+    private static final int DRAIN_BATCH = 64;
+    private static final Tick END = new Tick(null, 0);
+
+    private final List<StockPriceObserver> observers = new CopyOnWriteArrayList<>();
+    // In asynchronous mode holds the observers' mailboxes
+    private final SubscriptionIndex subscriptions = new SubscriptionIndex();
     private String stockSymbol;
     private double price;
 
-    public StockPriceSubject(){
+    // Asynchronous mode only (executor == null in synchronous mode)
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+    // addObserver() observers' mailboxes, in the order the dispatcher serves them
+    private final List<Mailbox> mailboxes = new CopyOnWriteArrayList<>();
+    // Every observer's mailbox; guarded by itself
+    private final IdentityHashMap<StockPriceObserver, Mailbox> mailboxByObserver = new IdentityHashMap<>();
+    private final BlockingQueue<Tick> dispatchQueue;
+    private final Thread dispatcher;
+    // Publishers hold the read lock from the closed check to the end of their put, close() takes
+    // the write lock: no tick can be queued behind END, and none is left waiting for a full queue
+    private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
 
+    public StockPriceSubject(){
+        this.executor = null;
+        this.ownedExecutor = null;
+        this.queueCapacity = 0;
+        this.overflowPolicy = null;
+        this.dispatchQueue = null;
+        this.dispatcher = null;
     }
     public StockPriceSubject(String symbol){
+        this();
         this.stockSymbol = symbol;
     }
+
+    // Asynchronous, observers served by a pool of daemon threads owned by this subject
+    public StockPriceSubject(int queueCapacity, OverflowPolicy overflowPolicy) {
+        this(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stock-price-observer");
+            thread.setDaemon(true);
+            return thread;
+        }), true, queueCapacity, overflowPolicy);
+    }
+
+    // Asynchronous, observers served by the given executor (which the caller shuts down)
+    public StockPriceSubject(Executor executor, int queueCapacity, OverflowPolicy overflowPolicy) {
+        this(executor, false, queueCapacity, overflowPolicy);
+    }
+
+    private StockPriceSubject(Executor executor, boolean owned, int queueCapacity, OverflowPolicy overflowPolicy) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ExecutorService) executor : null;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+        this.dispatchQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dispatcher = new Thread(this::dispatch, "stock-price-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
     // Add an observer
     public void addObserver(StockPriceObserver observer){
+        addObserver(observer, overflowPolicy);
+    }
+
+    // Add an observer with its own overflow policy (asynchronous mode only). The policy is fixed
+    // when the observer's mailbox is created: if it is already subscribed, its mailbox keeps its policy.
+    public void addObserver(StockPriceObserver observer, OverflowPolicy policy){
+        Mailbox mailbox = null;
+        if (executor != null) {
+            // A null policy is rejected before the observer is registered, even if its mailbox exists
+            mailbox = acquireMailbox(observer, Objects.requireNonNull(policy, "overflowPolicy"));
+        }
         observers.add(observer);
+        if (mailbox != null) {
+            mailboxes.add(mailbox);
+        }
     }
 
-    // Remove an observer
+    // Remove an observer; in asynchronous mode its pending ticks are discarded once it has no subscriptions left
     public void removeObserver(StockPriceObserver observer){
         observers.remove(observer);
+        if (executor != null) {
+            for (Mailbox mailbox : mailboxes) {
+                if (mailbox.observer == observer && mailboxes.remove(mailbox)) {
+                    releaseMailbox(mailbox);
+                    break;
+                }
+            }
+        }
+    }
+
+    // Only ticks of this symbol reach the observer
+    public void subscribe(String stockSymbol, StockPriceObserver observer) {
+        subscriptions.add(stockSymbol, deliveryTarget(observer));
+    }
+
+    // Ticks of every symbol starting with the prefix reach the observer ("" for all symbols)
+    public void subscribePrefix(String symbolPrefix, StockPriceObserver observer) {
+        subscriptions.addPrefix(symbolPrefix, deliveryTarget(observer));
+    }
+
+    public void unsubscribe(String stockSymbol, StockPriceObserver observer) {
+        release(subscriptions.remove(stockSymbol, target -> isFor(target, observer)));
+    }
+
+    public void unsubscribePrefix(String symbolPrefix, StockPriceObserver observer) {
+        release(subscriptions.removePrefix(symbolPrefix, target -> isFor(target, observer)));
+    }
+
+    // What the index holds: the observer itself, or in asynchronous mode its mailbox
+    private StockPriceObserver deliveryTarget(StockPriceObserver observer) {
+        return executor == null ? observer : acquireMailbox(observer, overflowPolicy);
+    }
+
+    // The observer's mailbox, created on its first registration; every addObserver() and
+    // subscription holds one reference to it
+    private Mailbox acquireMailbox(StockPriceObserver observer, OverflowPolicy policy) {
+        synchronized (mailboxByObserver) {
+            Mailbox mailbox = mailboxByObserver.get(observer);
+            if (mailbox == null) {
+                mailbox = new Mailbox(observer, policy);
+                mailboxByObserver.put(observer, mailbox);
+            }
+            mailbox.references++;
+            return mailbox;
+        }
+    }
+
+    // The last registration gone, the mailbox is discarded with its pending ticks
+    private void releaseMailbox(Mailbox mailbox) {
+        synchronized (mailboxByObserver) {
+            if (--mailbox.references == 0) {
+                mailboxByObserver.remove(mailbox.observer);
+                mailbox.cancel();
+            }
+        }
+    }
+
+    private static boolean isFor(StockPriceObserver target, StockPriceObserver observer) {
+        return target == observer || (target instanceof Mailbox mailbox && mailbox.observer == observer);
+    }
+
+    private void release(StockPriceObserver removed) {
+        if (removed instanceof Mailbox mailbox) {
+            releaseMailbox(mailbox);
+        }
     }
 
     // Notify all the observers
     public void notifyObservers(){
-        for(StockPriceObserver observer : observers){
-            observer.update(stockSymbol, price);
-        }
+        publish(stockSymbol, price);
     }
 
     public void setStockPrice(String stockSymbol, double price){
         this.stockSymbol = stockSymbol;
         this.price = price;
-        notifyObservers();
+        // The arguments, not the fields: another publisher may already have overwritten those
+        publish(stockSymbol, price);
+    }
+
+    // Ticks an observer lost to its overflow policy (dropped or conflated), from addObserver() and
+    // its subscriptions alike, while it is registered; asynchronous mode only
+    public long droppedTicks(StockPriceObserver observer) {
+        Mailbox mailbox;
+        synchronized (mailboxByObserver) {
+            mailbox = mailboxByObserver.get(observer);
+        }
+        return mailbox == null ? 0 : mailbox.dropped();
+    }
+
+    private void publish(String stockSymbol, double price) {
+        if (executor == null) {
+            for(StockPriceObserver observer : observers){
+                observer.update(stockSymbol, price);
+            }
+            subscriptions.notify(stockSymbol, price);
+            return;
+        }
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("StockPriceSubject is closed");
+            }
+            // Blocks only when the dispatcher is held up by a full BLOCK mailbox
+            dispatchQueue.put(new Tick(stockSymbol, price));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing " + stockSymbol, exception);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    // Dispatcher thread: the fan-out to every mailbox happens here, not on the publisher
+    private void dispatch() {
+        try {
+            while (true) {
+                Tick tick = dispatchQueue.take();
+                if (tick == END) {
+                    return;
+                }
+                for (Mailbox mailbox : mailboxes) {
+                    mailbox.offer(tick);
+                }
+                // Subscription mailboxes: offer() through update(), an interrupt resurfaces in take()
+                subscriptions.notify(tick.symbol(), tick.price());
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Stops accepting ticks. The ticks already published are still handed to the mailboxes; with
+    // the subject's own executor, close() also waits until the observers have received them.
+    // Handing the ticks over is not interruptible; an interrupt only cuts short the wait for the
+    // observers, and is restored on return.
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        boolean interrupted = false;
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // No publisher holds the read lock, so the queue only drains from here
+            while (true) {
+                try {
+                    dispatchQueue.put(END);
+                    break;
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        while (dispatcher.isAlive()) {
+            try {
+                dispatcher.join();
+            } catch (InterruptedException exception) {
+                interrupted = true;
+            }
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            if (!interrupted) {
+                try {
+                    ownedExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Tick(String symbol, double price) {
+    }
+
+    // One observer's bounded queue of pending ticks. At most one drain task per mailbox runs at a
+    // time, so an observer sees its ticks in order and never concurrently.
+    private final class Mailbox implements Runnable, StockPriceObserver {
+        final StockPriceObserver observer;
+        private final OverflowPolicy policy;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        // DROP_OLDEST and BLOCK
+        private final ArrayDeque<Tick> queue;
+        // CONFLATE: newest pending tick per symbol, in the order the symbols first changed
+        private final LinkedHashMap<String, Tick> latest;
+        private boolean scheduled;
+        private boolean cancelled;
+        private long dropped;
+        // Registrations using this mailbox; guarded by mailboxByObserver
+        int references;
+
+        Mailbox(StockPriceObserver observer, OverflowPolicy policy) {
+            this.observer = observer;
+            this.policy = Objects.requireNonNull(policy, "overflowPolicy");
+            this.queue = policy == OverflowPolicy.CONFLATE ? null : new ArrayDeque<>(queueCapacity);
+            this.latest = policy == OverflowPolicy.CONFLATE ? new LinkedHashMap<>() : null;
+        }
+
+        void offer(Tick tick) throws InterruptedException {
+            lock.lock();
+            try {
+                if (cancelled) {
+                    // Removed, or its observer failed: nothing will drain this mailbox again
+                    dropped++;
+                    return;
+                }
+                switch (policy) {
+                    case DROP_OLDEST -> {
+                        if (queue.size() == queueCapacity) {
+                            queue.poll();
+                            dropped++;
+                        }
+                        queue.add(tick);
+                    }
+                    case BLOCK -> {
+                        while (queue.size() == queueCapacity && !cancelled) {
+                            notFull.await();
+                        }
+                        queue.add(tick);
+                    }
+                    case CONFLATE -> {
+                        // put() keeps the symbol's place in line and only replaces the price
+                        if (latest.put(tick.symbol(), tick) != null) {
+                            dropped++;
+                        } else if (latest.size() > queueCapacity) {
+                            Iterator<Tick> oldest = latest.values().iterator();
+                            oldest.next();
+                            oldest.remove();
+                            dropped++;
+                        }
+                    }
+                }
+                if (cancelled || scheduled) {
+                    return;
+                }
+                scheduled = true;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException exception) {
+                rejected(exception);
+            }
+        }
+
+        // The executor refused the drain task (shut down, or saturated). The dispatcher must go on
+        // serving the other mailboxes, and a BLOCK mailbox that nobody drains would stall it, so
+        // the pending ticks are dropped and counted; the next tick tries to schedule again.
+        private void rejected(RejectedExecutionException exception) {
+            lock.lock();
+            try {
+                discardPending();
+            } finally {
+                lock.unlock();
+            }
+            System.err.println("Observer " + observer + " not scheduled: " + exception);
+        }
+
+        // The observer threw an Error. The drain task ends with it, so the mailbox is cancelled:
+        // a mailbox left scheduled but never drained would, with BLOCK, stall the dispatcher and
+        // every publisher behind it. Later ticks for this observer are counted as dropped.
+        private void failed(Error error) {
+            lock.lock();
+            try {
+                cancelled = true;
+                discardPending();
+            } finally {
+                lock.unlock();
+            }
+            System.err.println("Observer " + observer + " stopped: " + error);
+        }
+
+        // Caller holds lock
+        private void discardPending() {
+            dropped += queue != null ? queue.size() : latest.size();
+            if (queue != null) {
+                queue.clear();
+            } else {
+                latest.clear();
+            }
+            scheduled = false;
+            notFull.signalAll();
+        }
+
+        // Called by the dispatcher for subscriptions found in the index
+        @Override
+        public void update(String stockSymbol, double newPrice) {
+            try {
+                offer(new Tick(stockSymbol, newPrice));
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long dropped() {
+            lock.lock();
+            try {
+                return dropped;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Drain task: delivers outside the lock, so the dispatcher is never held up by update()
+        @Override
+        public void run() {
+            for (int delivered = 0; ; delivered++) {
+                Tick tick;
+                lock.lock();
+                try {
+                    tick = cancelled ? null : next();
+                    if (tick == null) {
+                        scheduled = false;
+                        return;
+                    }
+                    notFull.signal();
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    observer.update(tick.symbol(), tick.price());
+                } catch (RuntimeException exception) {
+                    // One failing update must not stop this observer's deliveries
+                    System.err.println("Observer " + observer + " failed on " + tick.symbol() + ": " + exception);
+                } catch (Error error) {
+                    failed(error);
+                    throw error;
+                }
+                if (delivered == DRAIN_BATCH && yieldThread()) {
+                    return;
+                }
+            }
+        }
+
+        // Resubmits this task so a busy observer does not keep a shared executor thread to itself
+        private boolean yieldThread() {
+            try {
+                executor.execute(this);
+                return true;
+            } catch (RejectedExecutionException exception) {
+                // Executor shutting down: keep draining on this thread
+                return false;
+            }
+        }
+
+        private Tick next() {
+            if (queue != null) {
+                return queue.poll();
+            }
+            Iterator<Tick> oldest = latest.values().iterator();
+            if (!oldest.hasNext()) {
+                return null;
+            }
+            Tick tick = oldest.next();
+            oldest.remove();
+            return tick;
+        }
     }
 }
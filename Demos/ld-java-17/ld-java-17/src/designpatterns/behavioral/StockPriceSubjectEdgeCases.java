@@ -0,0 +1,91 @@
+package designpatterns.behavioral;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Failure paths of the asynchronous StockPriceSubject. An observer that throws an Error, or an
+// executor that refuses the drain tasks, must cost only that observer its ticks: the publisher
+// never blocks for good, the other observers keep receiving every tick, and close() returns.
+public class StockPriceSubjectEdgeCases {
+    private static final int TICKS = 1_000;
+    private static final long TIMEOUT_MILLIS = 5_000;
+    private static int failures;
+
+    public static void main(String[] args) throws InterruptedException {
+        failingObserver();
+        rejectingExecutor();
+
+        if (failures > 0) {
+            System.err.println("FAILED: " + failures + " case(s)");
+            System.exit(1);
+        }
+        System.out.println("PASSED");
+    }
+
+    // BLOCK is the policy where a mailbox nobody drains would stall the dispatcher
+    private static void failingObserver() throws InterruptedException {
+        StockPriceSubject subject = new StockPriceSubject(4, OverflowPolicy.BLOCK);
+        StockPriceObserver failing = (stockSymbol, newPrice) -> {
+            throw new AssertionError("observer bug");
+        };
+        AtomicLong healthy = new AtomicLong();
+        subject.addObserver(failing);
+        subject.addObserver((stockSymbol, newPrice) -> healthy.incrementAndGet());
+
+        if (!within(() -> publish(subject), "publishing with a failing observer")) {
+            return;
+        }
+        if (!within(subject::close, "close() with a failing observer")) {
+            return;
+        }
+        check(healthy.get() == TICKS, "healthy observer received " + healthy.get() + " of " + TICKS);
+        long dropped = subject.droppedTicks(failing);
+        check(dropped == TICKS - 1, "failing observer dropped " + dropped + ", expected " + (TICKS - 1));
+    }
+
+    private static void rejectingExecutor() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        StockPriceSubject subject = new StockPriceSubject(executor, 4, OverflowPolicy.BLOCK);
+        StockPriceObserver observer = (stockSymbol, newPrice) -> { };
+        subject.addObserver(observer);
+
+        if (!within(() -> publish(subject), "publishing to a shut down executor")) {
+            return;
+        }
+        if (!within(subject::close, "close() with a shut down executor")) {
+            return;
+        }
+        long dropped = subject.droppedTicks(observer);
+        check(dropped == TICKS, "rejected observer dropped " + dropped + ", expected " + TICKS);
+    }
+
+    private static void publish(StockPriceSubject subject) {
+        for (int tick = 0; tick < TICKS; tick++) {
+            subject.setStockPrice("MSFT", 400 + tick);
+        }
+    }
+
+    // Runs the action on a daemon thread; false (and a failure) if it does not finish in time
+    private static boolean within(Runnable action, String description) throws InterruptedException {
+        Thread thread = new Thread(action, "edge-case");
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(TIMEOUT_MILLIS);
+        if (thread.isAlive()) {
+            check(false, description + " still blocked after " + TIMEOUT_MILLIS + " ms");
+            return false;
+        }
+        return true;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (condition) {
+            System.out.println("ok  " + message);
+        } else {
+            failures++;
+            System.err.println("FAIL " + message);
+        }
+    }
+}
@@ -1,17 +1,79 @@
 package designpatterns.behavioral;
 
-import org.w3c.dom.ls.LSOutput;
-
 public class StockService {
     private StockPriceSubject stockPriceSubject;
+    // Conflating mode only: latest price per symbol, delivered by publishLatestPrices()
+    private final ConflatingPriceStore priceStore;
+    // Tick pipeline mode only: updates go into the ring, its handlers notify the investors
+    private final TickRingBuffer tickRing;
+    // Direct mode only: print every update. Off by default, building and printing the line
+    // costs more than notifying the investors
+    private final boolean logUpdates;
+
     public StockService(StockPriceSubject stockPriceSubject) {
+        this(stockPriceSubject, false);
+    }
+
+    public StockService(StockPriceSubject stockPriceSubject, boolean logUpdates) {
+        this.stockPriceSubject = stockPriceSubject;
+        this.priceStore = null;
+        this.tickRing = null;
+        this.logUpdates = logUpdates;
+    }
+
+    // Conflating mode: updateStockPrice() only records the price, publishLatestPrices() notifies
+    // the investors once per changed symbol with its newest price
+    public StockService(StockPriceSubject stockPriceSubject, ConflatingPriceStore priceStore) {
         this.stockPriceSubject = stockPriceSubject;
+        this.priceStore = priceStore;
+        this.tickRing = null;
+        this.logUpdates = false;
+    }
+
+    // Tick pipeline mode: updateStockPrice() publishes into the ring and returns; investors are
+    // notified on the ring's handler threads (wrap them in an ObserverTickAdapter). No per-tick
+    // allocation or logging: at feed rates both cost more than the tick itself.
+    // The ring has a single producer: updateStockPrice() calls are serialized on it, so the
+    // service can be shared, but nothing else may publish into the same ring.
+    public StockService(TickRingBuffer tickRing) {
+        this.stockPriceSubject = null;
+        this.priceStore = null;
+        this.tickRing = tickRing;
+        this.logUpdates = false;
     }
 
     //Simulate the price change and notify the investors
     public void updateStockPrice(String stockSymbol, double newPrice) {
-        System.out.println("Updating stock price for " + stockSymbol + " to $" + newPrice );
+        if (tickRing != null) {
+            // Uncontended from a single feed thread; keeps concurrent callers from claiming the same slot
+            synchronized (tickRing) {
+                tickRing.publish(stockSymbol, newPrice, System.nanoTime());
+            }
+            return;
+        }
+        if (priceStore != null) {
+            // No logging here: in a burst this runs once per tick, and per-tick work is what conflation avoids
+            priceStore.update(stockSymbol, newPrice);
+            return;
+        }
+        if (logUpdates) {
+            System.out.println("Updating stock price for " + stockSymbol + " to $" + newPrice );
+        }
         stockPriceSubject.setStockPrice(stockSymbol, newPrice);
         // The change in price of the stock notifies observers through the stockPriceSubject
     }
+
+    // Conflating mode: notifies the investors of every symbol that changed since the last call,
+    // once, with its latest price. Returns the number of symbols published.
+    public int publishLatestPrices() {
+        if (priceStore == null) {
+            return 0;
+        }
+        return priceStore.drain(stockPriceSubject::setStockPrice);
+    }
+
+    // Latest recorded price, NaN when unknown; lock-free (conflating mode only)
+    public double latestPrice(String stockSymbol) {
+        return priceStore == null ? Double.NaN : priceStore.latestPrice(stockSymbol);
+    }
 }
@@ -0,0 +1,106 @@
+package designpatterns.behavioral;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+// Observers subscribed to one symbol or to every symbol starting with a prefix, indexed so that a
+// tick only reaches the observers interested in its symbol:
+//   exact      symbol -> observers, one hash lookup per tick
+//   prefix     trie of prefix characters; a tick walks the symbol's characters (a few, for ticker
+//              symbols) and notifies the observers on every node it passes
+// Each node's observers are a copy-on-write array: ticks read it without locking, subscribing
+// copies the observers of that one symbol or prefix only.
+final class SubscriptionIndex {
+    private static final StockPriceObserver[] NONE = new StockPriceObserver[0];
+
+    private final ConcurrentHashMap<String, Subscribers> bySymbol = new ConcurrentHashMap<>();
+    private final PrefixNode prefixes = new PrefixNode();
+    // Skips the trie walk while nobody subscribed by prefix
+    private volatile boolean hasPrefixSubscriptions;
+
+    void add(String stockSymbol, StockPriceObserver observer) {
+        bySymbol.computeIfAbsent(stockSymbol, symbol -> new Subscribers()).add(observer);
+    }
+
+    void addPrefix(String symbolPrefix, StockPriceObserver observer) {
+        PrefixNode node = prefixes;
+        for (int i = 0; i < symbolPrefix.length(); i++) {
+            node = node.children.computeIfAbsent(symbolPrefix.charAt(i), character -> new PrefixNode());
+        }
+        node.subscribers.add(observer);
+        hasPrefixSubscriptions = true;
+    }
+
+    // Removes the first observer of the symbol that matches; returns it, or null
+    StockPriceObserver remove(String stockSymbol, Predicate<StockPriceObserver> match) {
+        Subscribers subscribers = bySymbol.get(stockSymbol);
+        return subscribers == null ? null : subscribers.remove(match);
+    }
+
+    StockPriceObserver removePrefix(String symbolPrefix, Predicate<StockPriceObserver> match) {
+        PrefixNode node = prefixes;
+        for (int i = 0; i < symbolPrefix.length() && node != null; i++) {
+            node = node.children.get(symbolPrefix.charAt(i));
+        }
+        return node == null ? null : node.subscribers.remove(match);
+    }
+
+    // Calls update() on every observer interested in the symbol; returns how many
+    int notify(String stockSymbol, double price) {
+        int notified = 0;
+        Subscribers subscribers = bySymbol.get(stockSymbol);
+        if (subscribers != null) {
+            notified += subscribers.notify(stockSymbol, price);
+        }
+        if (hasPrefixSubscriptions) {
+            PrefixNode node = prefixes;
+            notified += node.subscribers.notify(stockSymbol, price);
+            for (int i = 0; i < stockSymbol.length(); i++) {
+                node = node.children.get(stockSymbol.charAt(i));
+                if (node == null) {
+                    break;
+                }
+                notified += node.subscribers.notify(stockSymbol, price);
+            }
+        }
+        return notified;
+    }
+
+    private static final class PrefixNode {
+        final ConcurrentHashMap<Character, PrefixNode> children = new ConcurrentHashMap<>();
+        final Subscribers subscribers = new Subscribers();
+    }
+
+    private static final class Subscribers {
+        private volatile StockPriceObserver[] observers = NONE;
+
+        synchronized void add(StockPriceObserver observer) {
+            StockPriceObserver[] copy = Arrays.copyOf(observers, observers.length + 1);
+            copy[copy.length - 1] = observer;
+            observers = copy;
+        }
+
+        synchronized StockPriceObserver remove(Predicate<StockPriceObserver> match) {
+            StockPriceObserver[] current = observers;
+            for (int i = 0; i < current.length; i++) {
+                if (match.test(current[i])) {
+                    StockPriceObserver[] copy = new StockPriceObserver[current.length - 1];
+                    System.arraycopy(current, 0, copy, 0, i);
+                    System.arraycopy(current, i + 1, copy, i, current.length - i - 1);
+                    observers = copy;
+                    return current[i];
+                }
+            }
+            return null;
+        }
+
+        int notify(String stockSymbol, double price) {
+            StockPriceObserver[] current = observers;
+            for (StockPriceObserver observer : current) {
+                observer.update(stockSymbol, price);
+            }
+            return current.length;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package designpatterns.behavioral;
+
+// 100,000 investors spread across 5,000 symbols (20 per symbol), each interested in one symbol;
+// 1% of them follow a prefix instead ("SYM12" -> SYM12, SYM120..SYM129, SYM1200..SYM1299).
+//   broadcast   addObserver(): every investor gets every tick and discards the other symbols
+//   indexed     subscribe() / subscribePrefix(): a tick reaches only its symbol's investors
+// Same harness style as the other demos: warm-up, then timed loops; the counters keep the JIT
+// from dropping the notifications.
+public class SubscriptionIndexBenchmark {
+    private static final int INVESTORS = 100_000;
+    private static final int SYMBOLS = 5_000;
+    private static final int TICKS = 2_000;
+
+    private static final String[] symbols = new String[SYMBOLS];
+    private static long wanted;
+    private static long discarded;
+
+    public static void main(String[] args) {
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols[i] = "SYM" + i;
+        }
+        StockPriceSubject broadcast = new StockPriceSubject();
+        StockPriceSubject indexed = new StockPriceSubject();
+        for (int i = 0; i < INVESTORS; i++) {
+            String symbol = symbols[i % SYMBOLS];
+            if (i % 100 == 99) {
+                String prefix = symbol.substring(0, Math.min(symbol.length(), 5));
+                broadcast.addObserver((stockSymbol, newPrice) -> count(stockSymbol.startsWith(prefix)));
+                indexed.subscribePrefix(prefix, (stockSymbol, newPrice) -> count(true));
+            } else {
+                broadcast.addObserver((stockSymbol, newPrice) -> count(stockSymbol.equals(symbol)));
+                indexed.subscribe(symbol, (stockSymbol, newPrice) -> count(true));
+            }
+        }
+
+        // Warm-up
+        run(broadcast, 200);
+        run(indexed, 20_000);
+
+        long broadcastTime = run(broadcast, TICKS);
+        long broadcastWanted = wanted;
+        long broadcastDiscarded = discarded;
+        long indexedTime = run(indexed, TICKS);
+
+        System.out.println(INVESTORS + " investors, " + SYMBOLS + " symbols, " + TICKS + " ticks");
+        System.out.println("Broadcast (ns/tick): " + broadcastTime / TICKS
+                + "  notifications wanted " + broadcastWanted + ", discarded " + broadcastDiscarded);
+        System.out.println("Indexed   (ns/tick): " + indexedTime / TICKS
+                + "  notifications wanted " + wanted + ", discarded " + discarded);
+    }
+
+    private static long run(StockPriceSubject subject, int ticks) {
+        wanted = 0;
+        discarded = 0;
+        long start = System.nanoTime();
+        for (int tick = 0; tick < ticks; tick++) {
+            // Spread over the symbols, not just the first ones
+            subject.setStockPrice(symbols[(tick * 7919) % SYMBOLS], 100 + tick);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void count(boolean interested) {
+        if (interested) {
+            wanted++;
+        } else {
+            discarded++;
+        }
+    }
+}
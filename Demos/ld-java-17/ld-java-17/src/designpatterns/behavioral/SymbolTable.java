@@ -0,0 +1,56 @@
+package designpatterns.behavioral;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stock symbols numbered 0, 1, 2, ... in order of first use, so per-symbol state can live in
+// arrays and ticks can carry an int instead of a String. Fixed capacity: a market has a known
+// number of listed symbols.
+public final class SymbolTable {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger count = new AtomicInteger();
+    private final String[] symbols;
+
+    public SymbolTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.symbols = new String[capacity];
+    }
+
+    // Id of the symbol, assigned on first use
+    public int idOf(String stockSymbol) {
+        Integer id = ids.get(stockSymbol);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(stockSymbol, symbol -> {
+            // computeIfAbsent only serializes the same key: two new symbols can get here at once
+            int next = count.getAndIncrement();
+            if (next >= symbols.length) {
+                throw new IllegalStateException("More than " + symbols.length + " symbols, cannot add " + symbol);
+            }
+            symbols[next] = symbol;
+            return next;
+        });
+    }
+
+    // Id of the symbol, -1 if it has none
+    public int find(String stockSymbol) {
+        Integer id = ids.get(stockSymbol);
+        return id == null ? -1 : id;
+    }
+
+    // For an id from idOf() (or carried by a tick published after it): its name is visible
+    public String symbol(int id) {
+        return symbols[id];
+    }
+
+    public int size() {
+        return Math.min(count.get(), symbols.length);
+    }
+
+    public int capacity() {
+        return symbols.length;
+    }
+}
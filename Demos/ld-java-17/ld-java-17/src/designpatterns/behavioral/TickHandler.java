@@ -0,0 +1,8 @@
+package designpatterns.behavioral;
+
+// Consumer of a TickRingBuffer. Ticks arrive in batches: everything published since the handler
+// last caught up. endOfBatch marks the last tick of a batch, the place for work that can be done
+// once per batch instead of once per tick (flushing, publishing aggregates, ...).
+public interface TickHandler {
+    void onTick(PriceTick tick, boolean endOfBatch);
+}
@@ -0,0 +1,129 @@
+package designpatterns.behavioral;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+
+// Throughput and allocation of the TickRingBuffer: one producer (this thread) and two handlers,
+//   - a batch-aware handler that sums prices and publishes the total once per batch
+//   - an existing-style StockPriceObserver behind an ObserverTickAdapter
+// over 1,000 symbols. Allocation is measured per thread with com.sun.management.ThreadMXBean
+// after a warm-up, so it shows what the steady state allocates per tick (expected: 0).
+public class TickPipelineBenchmark {
+    private static final int SYMBOLS = 1_000;
+    private static final int WARMUP_TICKS = 5_000_000;
+    private static final int TICKS = 20_000_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        SymbolTable symbols = new SymbolTable(SYMBOLS);
+        int[] ids = new int[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            ids[i] = symbols.idOf("SYM" + i);
+        }
+
+        TickRingBuffer ring = new TickRingBuffer(65_536, symbols);
+        SummingHandler summing = new SummingHandler();
+        CountingObserver counting = new CountingObserver();
+        ObserverTickAdapter adapter = new ObserverTickAdapter(counting, symbols);
+        ring.addHandler(summing);
+        ring.addHandler((tick, endOfBatch) -> {
+            if (counting.thread == null) {
+                counting.thread = Thread.currentThread();
+            }
+            adapter.onTick(tick, endOfBatch);
+        });
+        ring.start();
+
+        // Warm-up
+        publish(ring, ids, 0, WARMUP_TICKS);
+        awaitConsumed(ring, summing, counting);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long summingId = threadId(threads, summing.thread);
+        long adapterId = threadId(threads, counting.thread);
+        long producerBytes = threads.getCurrentThreadAllocatedBytes();
+        long summingBytes = threads.getThreadAllocatedBytes(summingId);
+        long adapterBytes = threads.getThreadAllocatedBytes(adapterId);
+        long batches = summing.batches;
+
+        long start = System.nanoTime();
+        publish(ring, ids, WARMUP_TICKS, TICKS);
+        awaitConsumed(ring, summing, counting);
+        long elapsed = System.nanoTime() - start;
+
+        producerBytes = threads.getCurrentThreadAllocatedBytes() - producerBytes;
+        summingBytes = threads.getThreadAllocatedBytes(summingId) - summingBytes;
+        adapterBytes = threads.getThreadAllocatedBytes(adapterId) - adapterBytes;
+        batches = summing.batches - batches;
+        ring.close();
+
+        System.out.println(TICKS + " ticks, " + SYMBOLS + " symbols, 2 handlers, "
+                + Runtime.getRuntime().availableProcessors() + " CPU(s)");
+        System.out.println("Throughput : " + (long) (TICKS / (elapsed / 1e9)) + " ticks/s");
+        System.out.println("Allocated  : producer " + producerBytes + " B, summing handler " + summingBytes
+                + " B, observer adapter " + adapterBytes + " B");
+        System.out.println("Batches    : " + batches + " (average " + TICKS / Math.max(1, batches) + " ticks)");
+        System.out.println("Checksum   : " + summing.publishedTotal + " / " + counting.updates);
+    }
+
+    // The handler thread's ID as the MXBean reports it, found by its (unique) name: Thread.getId()
+    // is deprecated and Thread.threadId() needs Java 19
+    private static long threadId(ThreadMXBean threads, Thread thread) {
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+            if (info != null && info.getThreadName().equals(thread.getName())) {
+                return info.getThreadId();
+            }
+        }
+        throw new IllegalStateException("Thread " + thread.getName() + " is not running");
+    }
+
+    private static void publish(TickRingBuffer ring, int[] ids, int from, int count) {
+        for (int i = from; i < from + count; i++) {
+            ring.publish(ids[i % ids.length], 1_500_000 + (i & 1023), i);
+        }
+    }
+
+    private static void awaitConsumed(TickRingBuffer ring, SummingHandler summing, CountingObserver counting)
+            throws InterruptedException {
+        long expected = ring.cursor() + 1;
+        while (summing.ticks < expected || counting.updates < expected) {
+            Thread.sleep(1);
+        }
+    }
+
+    // Sums on every tick, publishes once per batch (the volatile write is the per-batch work)
+    private static final class SummingHandler implements TickHandler {
+        volatile Thread thread;
+        volatile long ticks;
+        volatile long publishedTotal;
+        volatile long batches;
+        private long total;
+        private long count;
+
+        @Override
+        public void onTick(PriceTick tick, boolean endOfBatch) {
+            total += tick.priceTicks();
+            count++;
+            if (endOfBatch) {
+                if (thread == null) {
+                    thread = Thread.currentThread();
+                }
+                batches++;
+                publishedTotal = total;
+                ticks = count;
+            }
+        }
+    }
+
+    private static final class CountingObserver implements StockPriceObserver {
+        volatile Thread thread;
+        volatile long updates;
+
+        @Override
+        public void update(String stockSymbol, double newPrice) {
+            if (stockSymbol != null && newPrice > 0) {
+                updates++;
+            }
+        }
+    }
+}
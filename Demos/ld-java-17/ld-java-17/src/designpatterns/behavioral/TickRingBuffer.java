@@ -0,0 +1,209 @@
+package designpatterns.behavioral;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Tick pipeline without per-tick allocation: a ring of preallocated PriceTick slots between one
+// producer (the feed) and any number of TickHandlers, each on its own thread.
+//
+//   TickRingBuffer ring = new TickRingBuffer(65_536, symbols);
+//   ring.addHandler(new ObserverTickAdapter(investor, symbols));
+//   ring.start();
+//   ring.publish(symbols.idOf("AAPL"), PriceTick.toTicks(150.5), System.nanoTime());   // feed thread
+//
+// Publishing writes the fields of the next slot and advances the cursor (an ordered store). Each
+// handler thread reads every tick up to the cursor as one batch, then advances its own sequence;
+// the producer only reuses a slot once every handler's sequence has passed it, waiting if the
+// slowest handler is a full ring behind. Nothing is allocated per tick and no lock is taken.
+//
+// Single producer: publish() must be called from one thread at a time.
+// Waiting (a handler with nothing to read, the producer on a full ring) spins briefly, then yields,
+// then parks for short intervals, so an idle pipeline does not burn a core.
+public final class TickRingBuffer implements AutoCloseable {
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    private final PriceTick[] slots;
+    private final int mask;
+    private final SymbolTable symbols;
+    // Last published sequence
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<Consumer> consumers = new ArrayList<>();
+    // Producer thread only
+    private long nextSequence = -1;
+    private long cachedMinimumConsumed = -1;
+    private volatile boolean running;
+
+    // capacity: a power of two
+    public TickRingBuffer(int capacity, SymbolTable symbols) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.slots = new PriceTick[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new PriceTick();
+        }
+        this.mask = capacity - 1;
+        this.symbols = symbols;
+    }
+
+    public SymbolTable symbols() {
+        return symbols;
+    }
+
+    // Handlers are added before start()
+    public synchronized void addHandler(TickHandler handler) {
+        if (running) {
+            throw new IllegalStateException("Handlers must be added before start()");
+        }
+        consumers.add(new Consumer(handler, consumers.size()));
+    }
+
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("Already started");
+        }
+        running = true;
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    public void publish(int symbolId, long priceTicks, long timestamp) {
+        publish(symbolId, priceTicks, 1, timestamp);
+    }
+
+    public void publish(int symbolId, long priceTicks, long quantity, long timestamp) {
+        long sequence = claim();
+        PriceTick slot = slots[(int) sequence & mask];
+        slot.symbolId = symbolId;
+        slot.priceTicks = priceTicks;
+        slot.quantity = quantity;
+        slot.timestamp = timestamp;
+        slot.sequence = sequence;
+        // Release: the slot's fields are visible to a handler that sees the new cursor
+        cursor.lazySet(sequence);
+    }
+
+    // Convenience for String / double feeds; the symbol lookup is a hash map get, still no allocation
+    public void publish(String stockSymbol, double price, long timestamp) {
+        publish(symbols.idOf(stockSymbol), PriceTick.toTicks(price), timestamp);
+    }
+
+    // Last published sequence, -1 before the first tick
+    public long cursor() {
+        return cursor.get();
+    }
+
+    // Waits until every handler has seen every published tick, then stops the handler threads.
+    // Called by the producer, after its last publish(). Not interruptible: an interrupt is
+    // restored on return.
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        long last = cursor.get();
+        for (int idle = 0; minimumConsumed() < last; ) {
+            idle = backOff(idle);
+        }
+        running = false;
+        boolean interrupted = false;
+        for (Consumer consumer : consumers) {
+            LockSupport.unpark(consumer.thread);
+            while (consumer.thread.isAlive()) {
+                try {
+                    consumer.thread.join();
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long claim() {
+        long next = nextSequence + 1;
+        long wrapPoint = next - slots.length;
+        // The slot still holds a tick some handler has not read: wait for the slowest one
+        if (wrapPoint > cachedMinimumConsumed) {
+            long minimum;
+            for (int idle = 0; wrapPoint > (minimum = minimumConsumed()); ) {
+                idle = backOff(idle);
+            }
+            cachedMinimumConsumed = minimum;
+        }
+        nextSequence = next;
+        return next;
+    }
+
+    private long minimumConsumed() {
+        long minimum = nextSequence;
+        for (Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    // One round of waiting; returns the next round (which stops growing once parking)
+    private static int backOff(int round) {
+        if (round < SPINS) {
+            Thread.onSpinWait();
+        } else if (round < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return round;
+        }
+        return round + 1;
+    }
+
+    private final class Consumer implements Runnable {
+        final TickHandler handler;
+        // Last sequence this handler finished; Long.MAX_VALUE once its thread died
+        final AtomicLong sequence = new AtomicLong(-1);
+        final Thread thread;
+
+        Consumer(TickHandler handler, int index) {
+            this.handler = handler;
+            this.thread = new Thread(this, "tick-handler-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int idle = 0;
+            while (running) {
+                long available = cursor.get();
+                if (available < next) {
+                    idle = backOff(idle);
+                    continue;
+                }
+                idle = 0;
+                for (long current = next; current <= available; current++) {
+                    try {
+                        handler.onTick(slots[(int) current & mask], current == available);
+                    } catch (RuntimeException exception) {
+                        // A failing handler must not stall the producer waiting on its sequence
+                        System.err.println("Tick handler " + handler + " failed at sequence " + current + ": " + exception);
+                    } catch (Error error) {
+                        // Not worth going on after, but the producer and close() must not wait
+                        // forever for this handler: it no longer holds back any slot
+                        sequence.set(Long.MAX_VALUE);
+                        System.err.println("Tick handler " + handler + " stopped at sequence " + current + ": " + error);
+                        throw error;
+                    }
+                }
+                // Frees the batch's slots for the producer
+                sequence.lazySet(available);
+                next = available + 1;
+            }
+        }
+    }
+}
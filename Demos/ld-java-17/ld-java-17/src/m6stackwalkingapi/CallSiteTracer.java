@@ -0,0 +1,250 @@
+package m6stackwalkingapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Tags operations with the call site they came from, without a full stack capture.
+//
+//   int site = tracer.capture();          // on the hot path: a small int
+//   tracer.callSite(site)                 // later, when auditing: the frames behind it
+//
+// capture() walks the stack lazily with StackWalker and stops as soon as it has the first
+// maxFrames frames whose class is in one of the given packages: no StackTraceElement[] for the
+// whole stack, no file names or line numbers resolved. The frames are identified by
+// (declaring class, method name, method descriptor, bytecode index), which
+// RETAIN_CLASS_REFERENCE makes cheap (the descriptor tells apart overloads, whose bytecode
+// indexes can coincide), and interned into a table of call sites: the same code path always
+// gets the same id, and the readable StackTraceElements are only created when a site is first seen.
+//
+// The table is copy-on-write: lookups are lock-free reads of an immutable array, inserts
+// (once per distinct call site) copy it under a lock. Call sites in a program are few.
+public final class CallSiteTracer {
+    private final StackWalker walker;
+    private final String[] packagePrefixes;
+    // The same prefixes followed by a dot, so "com.bank" matches com.bank.x but not com.banking
+    private final String[] subPackagePrefixes;
+    private final int maxFrames;
+    // One reusable walk function (and its frame scratch space) per thread
+    private final ThreadLocal<Capture> captures;
+    private volatile Table table = new Table(new CallSite[16], new CallSite[0]);
+
+    // packagePrefixes: only frames of classes in these packages (and sub-packages) count;
+    // none means every frame outside this class
+    public CallSiteTracer(int maxFrames, String... packagePrefixes) {
+        if (maxFrames < 1) {
+            throw new IllegalArgumentException("maxFrames must be at least 1");
+        }
+        this.maxFrames = maxFrames;
+        this.packagePrefixes = packagePrefixes.clone();
+        this.subPackagePrefixes = new String[packagePrefixes.length];
+        for (int i = 0; i < packagePrefixes.length; i++) {
+            subPackagePrefixes[i] = packagePrefixes[i] + ".";
+        }
+        // The depth estimate sizes the walker's first batch of frames; filtering skips a few more
+        this.walker = StackWalker.getInstance(Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE), maxFrames + 8);
+        this.captures = ThreadLocal.withInitial(Capture::new);
+    }
+
+    // Id of the caller's call site; -1 if no frame on the stack matches the packages
+    public int capture() {
+        Capture capture = captures.get();
+        walker.walk(capture);
+        return capture.id;
+    }
+
+    public CallSite callSite(int id) {
+        CallSite[] byId = table.byId;
+        if (id < 0 || id >= byId.length) {
+            throw new IllegalArgumentException("Unknown call site id " + id);
+        }
+        return byId[id];
+    }
+
+    public int size() {
+        return table.byId.length;
+    }
+
+    private boolean relevant(Class<?> declaringClass) {
+        if (declaringClass == CallSiteTracer.class || declaringClass == Capture.class) {
+            return false;
+        }
+        if (packagePrefixes.length == 0) {
+            return true;
+        }
+        String packageName = declaringClass.getPackageName();
+        for (int i = 0; i < packagePrefixes.length; i++) {
+            if (packageName.equals(packagePrefixes[i]) || packageName.startsWith(subPackagePrefixes[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int intern(Class<?>[] classes, String[] methods, String[] descriptors, int[] byteCodeIndexes,
+                       List<StackWalker.StackFrame> frames, int count, int hash) {
+        Table current = table;
+        int id = current.find(classes, methods, descriptors, byteCodeIndexes, count, hash);
+        if (id >= 0) {
+            return id;
+        }
+        synchronized (this) {
+            current = table;
+            id = current.find(classes, methods, descriptors, byteCodeIndexes, count, hash);
+            if (id >= 0) {
+                return id;
+            }
+            List<StackTraceElement> elements = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                elements.add(frames.get(i).toStackTraceElement());
+            }
+            CallSite site = new CallSite(current.byId.length, List.copyOf(elements),
+                    Arrays.copyOf(classes, count), Arrays.copyOf(methods, count), Arrays.copyOf(descriptors, count),
+                    Arrays.copyOf(byteCodeIndexes, count), hash);
+            table = current.with(site);
+            return site.id;
+        }
+    }
+
+    // The walk function: collects the first maxFrames relevant frames and interns them
+    private final class Capture implements Function<Stream<StackWalker.StackFrame>, Void> {
+        final Class<?>[] classes = new Class<?>[maxFrames];
+        final String[] methods = new String[maxFrames];
+        final String[] descriptors = new String[maxFrames];
+        final int[] byteCodeIndexes = new int[maxFrames];
+        final List<StackWalker.StackFrame> frames = new ArrayList<>(maxFrames);
+        int id;
+
+        @Override
+        public Void apply(Stream<StackWalker.StackFrame> stream) {
+            frames.clear();
+            int count = 0;
+            int hash = 1;
+            Iterator<StackWalker.StackFrame> iterator = stream.iterator();
+            // Frames are produced on demand, so stopping here ends the walk
+            while (count < maxFrames && iterator.hasNext()) {
+                StackWalker.StackFrame frame = iterator.next();
+                Class<?> declaringClass = frame.getDeclaringClass();
+                if (!relevant(declaringClass)) {
+                    continue;
+                }
+                String method = frame.getMethodName();
+                String descriptor = frame.getDescriptor();
+                int byteCodeIndex = frame.getByteCodeIndex();
+                classes[count] = declaringClass;
+                methods[count] = method;
+                descriptors[count] = descriptor;
+                byteCodeIndexes[count] = byteCodeIndex;
+                frames.add(frame);
+                hash = 31 * hash + System.identityHashCode(declaringClass);
+                hash = 31 * hash + method.hashCode();
+                hash = 31 * hash + descriptor.hashCode();
+                hash = 31 * hash + byteCodeIndex;
+                count++;
+            }
+            id = count == 0 ? -1 : intern(classes, methods, descriptors, byteCodeIndexes, frames, count, hash);
+            // Do not keep frames (and their classes) reachable between captures
+            frames.clear();
+            Arrays.fill(classes, null);
+            return null;
+        }
+    }
+
+    // Immutable snapshot: open-addressing index by frame hash plus the call sites by id
+    private static final class Table {
+        final CallSite[] slots;
+        final CallSite[] byId;
+
+        Table(CallSite[] slots, CallSite[] byId) {
+            this.slots = slots;
+            this.byId = byId;
+        }
+
+        int find(Class<?>[] classes, String[] methods, String[] descriptors, int[] byteCodeIndexes, int count, int hash) {
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; slots[slot] != null; slot = (slot + 1) & mask) {
+                if (slots[slot].matches(classes, methods, descriptors, byteCodeIndexes, count, hash)) {
+                    return slots[slot].id;
+                }
+            }
+            return -1;
+        }
+
+        Table with(CallSite site) {
+            CallSite[] byId = Arrays.copyOf(this.byId, this.byId.length + 1);
+            byId[site.id] = site;
+            // Keep the index at most half full
+            int capacity = slots.length;
+            while (byId.length * 2 > capacity) {
+                capacity *= 2;
+            }
+            CallSite[] slots = new CallSite[capacity];
+            int mask = capacity - 1;
+            for (CallSite existing : byId) {
+                int slot = existing.hash & mask;
+                while (slots[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = existing;
+            }
+            return new Table(slots, byId);
+        }
+    }
+
+    public static final class CallSite {
+        private final int id;
+        private final List<StackTraceElement> frames;
+        private final Class<?>[] classes;
+        private final String[] methods;
+        private final String[] descriptors;
+        private final int[] byteCodeIndexes;
+        private final int hash;
+
+        private CallSite(int id, List<StackTraceElement> frames, Class<?>[] classes, String[] methods,
+                         String[] descriptors, int[] byteCodeIndexes, int hash) {
+            this.id = id;
+            this.frames = frames;
+            this.classes = classes;
+            this.methods = methods;
+            this.descriptors = descriptors;
+            this.byteCodeIndexes = byteCodeIndexes;
+            this.hash = hash;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        // Innermost frame first, like a stack trace
+        public List<StackTraceElement> frames() {
+            return frames;
+        }
+
+        private boolean matches(Class<?>[] otherClasses, String[] otherMethods, String[] otherDescriptors,
+                                int[] otherIndexes, int count, int otherHash) {
+            if (hash != otherHash || classes.length != count) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                if (classes[i] != otherClasses[i] || byteCodeIndexes[i] != otherIndexes[i]
+                        || !methods[i].equals(otherMethods[i]) || !descriptors[i].equals(otherDescriptors[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("CallSite#").append(id);
+            for (StackTraceElement frame : frames) {
+                builder.append("\n\tat ").append(frame);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package m6stackwalkingapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Tags simulated ledger operations with their originating call site three ways:
+//   - Thread.getStackTrace()                 full capture, every frame resolved
+//   - StackWalker collecting every frame     lazy, but still the whole stack
+//   - CallSiteTracer.capture()               first 2 frames of this package, interned to an int id
+// Same harness style as StackTracePerformanceTest (warm-up, then timed loops); every result
+// feeds a checksum so the JIT cannot drop the work.
+// The operations run below `depth` extra frames (default 64), like code under a server's request
+// handling stack: full captures grow with the depth, the tracer stops after its first frames.
+// Usage: CallSiteTracerPerformanceTest [depth]
+public class CallSiteTracerPerformanceTest {
+    private static final int ITERATIONS = 100_000;
+    private static final StackWalker walker = StackWalker.getInstance();
+    private static final CallSiteTracer tracer = new CallSiteTracer(2, "m6stackwalkingapi");
+
+    private static long checksum;
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        atDepth(depth, () -> {
+            // Warm-up JVM
+            for (int i = 0; i < 10_000; i++) {
+                runLedger(Mode.TRADITIONAL);
+                runLedger(Mode.STACK_WALKER);
+                runLedger(Mode.TRACER);
+            }
+
+            // Actual benchmarking
+            long traditionalTime = time(Mode.TRADITIONAL);
+            long walkerTime = time(Mode.STACK_WALKER);
+            long tracerTime = time(Mode.TRACER);
+            printResults(depth, traditionalTime, walkerTime, tracerTime);
+        });
+    }
+
+    private static void atDepth(int depth, Runnable benchmark) {
+        if (depth <= 0) {
+            benchmark.run();
+        } else {
+            atDepth(depth - 1, benchmark);
+        }
+    }
+
+    private static void printResults(int depth, long traditionalTime, long walkerTime, long tracerTime) {
+        // 3 ledger operations per iteration
+        long operations = ITERATIONS * 3L;
+        System.out.println("Extra stack depth : " + depth);
+        System.out.println("Thread.getStackTrace    (ns/op): " + traditionalTime / operations);
+        System.out.println("StackWalker, all frames (ns/op): " + walkerTime / operations);
+        System.out.println("CallSiteTracer          (ns/op): " + tracerTime / operations);
+        System.out.println("Checksum : " + checksum);
+
+        // What the audit log would resolve the ids to
+        List<Integer> tags = new ArrayList<>();
+        tags.add(processPayment(Mode.TRACER));
+        tags.add(validateTransaction(Mode.TRACER));
+        tags.add(updateLedger(Mode.TRACER));
+        System.out.println("\nCall sites interned : " + tracer.size() + ", tags : " + tags);
+        for (int id : tags) {
+            System.out.println(tracer.callSite(id));
+        }
+    }
+
+    private enum Mode { TRADITIONAL, STACK_WALKER, TRACER }
+
+    private static long time(Mode mode) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            runLedger(mode);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void runLedger(Mode mode) {
+        checksum += processPayment(mode);
+        checksum += validateTransaction(mode);
+        checksum += updateLedger(mode);
+    }
+
+    // Simulated financial operations, each tagged with where it was called from
+    private static int processPayment(Mode mode) {
+        return tag(mode);
+    }
+
+    private static int validateTransaction(Mode mode) {
+        return tag(mode);
+    }
+
+    private static int updateLedger(Mode mode) {
+        return tag(mode);
+    }
+
+    private static int tag(Mode mode) {
+        return switch (mode) {
+            case TRADITIONAL -> Thread.currentThread().getStackTrace().length;
+            case STACK_WALKER -> walker.walk(frames -> frames.collect(Collectors.toList())).size();
+            case TRACER -> tracer.capture();
+        };
+    }
+}
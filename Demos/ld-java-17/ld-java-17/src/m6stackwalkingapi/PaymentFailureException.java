@@ -0,0 +1,18 @@
+package m6stackwalkingapi;
+
+// Expected payment failures (declined, invalid, ledger busy) are business outcomes, not bugs:
+// nobody reads their stack trace. Passing writableStackTrace=false skips fillInStackTrace(),
+// which is where almost all of the cost of `new RuntimeException(...)` goes, and with
+// suppression disabled and no cause an instance is immutable, so one preallocated instance
+// per failure can be thrown from any thread without allocating.
+public class PaymentFailureException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public static final PaymentFailureException PAYMENT_FAILED = new PaymentFailureException("Payment processing failed");
+    public static final PaymentFailureException VALIDATION_FAILED = new PaymentFailureException("Transaction validation failed");
+    public static final PaymentFailureException LEDGER_UPDATE_FAILED = new PaymentFailureException("Ledger update failed");
+
+    public PaymentFailureException(String message) {
+        super(message, null, false, false);
+    }
+}
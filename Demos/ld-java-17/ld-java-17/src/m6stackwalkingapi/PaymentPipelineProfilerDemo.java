@@ -0,0 +1,110 @@
+package m6stackwalkingapi;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Profiles a simulated payment pipeline with SamplingProfiler and prints the folded stacks.
+// validateTransaction does about twice the work of processPayment and updateLedger four times,
+// so updateLedger should get the most samples and processPayment the fewest (not exactly 1:2:4,
+// samples land on checkpoints, see SamplingProfiler).
+//
+// Every stage calls checkpoint() inside its loop; the run is done once without the profiler
+// and once with it, to show what sampling costs in throughput. In a short run that includes the
+// JIT compiling the stack walking code, so expect more than the maxOverhead budget.
+// Usage: PaymentPipelineProfilerDemo [output.folded]
+//   flamegraph.pl output.folded > payments.svg     (or open the file in speedscope.app)
+public class PaymentPipelineProfilerDemo {
+    private static final int WORKERS = 2;
+    private static final Duration RUN_TIME = Duration.ofSeconds(2);
+
+    private static final SamplingProfiler profiler = new SamplingProfiler(Duration.ofMillis(5), 64, 0.02);
+    private static volatile long sink;
+
+    public static void main(String[] args) throws Exception {
+        long baseline = run(false);
+        profiler.start();
+        long profiled = run(true);
+        profiler.stop();
+
+        System.out.println("Payments without profiler : " + baseline);
+        System.out.println("Payments with profiler    : " + profiled);
+        System.out.printf("Samples : %d, time spent sampling : %d us, skipped ticks : %d%n",
+                profiler.samples(), profiler.sampleTime().toNanos() / 1_000, profiler.skippedTicks());
+        System.out.println("\nFolded stacks:");
+        profiler.writeFolded(System.out);
+
+        if (args.length > 0) {
+            try (Writer out = Files.newBufferedWriter(Path.of(args[0]))) {
+                profiler.writeFolded(out);
+            }
+            System.out.println("\nWritten to " + args[0]);
+        }
+    }
+
+    // Payments processed by all workers in RUN_TIME
+    private static long run(boolean profile) throws InterruptedException {
+        long deadline = System.nanoTime() + RUN_TIME.toNanos();
+        long[] counts = new long[WORKERS];
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < WORKERS; i++) {
+            int worker = i;
+            Thread thread = new Thread(() -> {
+                if (profile) {
+                    profiler.register();
+                }
+                try {
+                    while (System.nanoTime() < deadline) {
+                        handlePayment(worker);
+                        counts[worker]++;
+                    }
+                } finally {
+                    profiler.unregister();
+                }
+            }, "payment-worker-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private static void handlePayment(int seed) {
+        processPayment(seed);
+        validateTransaction(seed);
+        updateLedger(seed);
+    }
+
+    // Simulated financial operations: CPU work in proportion 1 : 2 : 4
+    private static void processPayment(int seed) {
+        work(seed, 1);
+    }
+
+    private static void validateTransaction(int seed) {
+        work(seed, 2);
+    }
+
+    private static void updateLedger(int seed) {
+        work(seed, 4);
+    }
+
+    private static void work(int seed, int units) {
+        long value = seed;
+        for (int unit = 0; unit < units; unit++) {
+            for (int i = 0; i < 1_000; i++) {
+                value = value * 6364136223846793005L + 1442695040888963407L;
+            }
+            profiler.checkpoint();
+        }
+        sink = value;
+    }
+}
@@ -0,0 +1,316 @@
+package m6stackwalkingapi;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// In-process sampling profiler for registered worker threads, built on StackWalker.
+//
+//   SamplingProfiler profiler = new SamplingProfiler(Duration.ofMillis(10), 64, 0.01);
+//   profiler.start();
+//   // in each worker thread:
+//   profiler.register();
+//   ... profiler.checkpoint(); ...          // in the loops of processPayment, validateTransaction, ...
+//   // later:
+//   profiler.writeFolded(writer);           // "a;b;c 42" lines, input for flamegraph.pl / speedscope
+//
+// StackWalker can only walk the stack of the thread that calls it, so sampling is cooperative:
+// every interval the sampler thread raises a flag on each registered worker, and the worker takes
+// the sample at its next checkpoint() by walking its own stack. Between samples a checkpoint is a
+// ThreadLocal lookup and a volatile read. The price is checkpoint bias: time is attributed to the
+// stacks at checkpoints, so put them in the loops of the code you want to see.
+//
+// Overhead is bounded three ways:
+//   - interval     at most one pending sample per worker per interval
+//   - maxDepth     a walk stops after maxDepth frames (deeper stacks get a [truncated] root)
+//   - maxOverhead  fraction of worker time the walks may take; the sampler measures the CPU time
+//                  spent walking and skips ticks while it is over budget (JIT compilation of the
+//                  walking code, early on, is not counted)
+//
+// Samples are aggregated into a trie of frames (outermost frame at the root) held in primitive
+// arrays: one node per distinct stack prefix, one long counter per node, no per-sample objects.
+public final class SamplingProfiler implements AutoCloseable {
+    private static final int NO_NODE = -1;
+    private static final int TRUNCATED_FRAME = 0;
+
+    private final long intervalNanos;
+    private final int maxDepth;
+    private final double maxOverhead;
+    private final StackWalker walker;
+    // CPU time, not wall time: a worker descheduled in the middle of a walk has not spent that time
+    // sampling. Falls back to wall time where the JVM cannot measure thread CPU time.
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTime = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+    private final AtomicLong walkNanos = new AtomicLong();
+    private final AtomicLong skippedTicks = new AtomicLong();
+    private volatile Thread sampler;
+
+    // Guarded by `this`: frame names and the trie
+    private final ClassValue<HashMap<String, Integer>> frameIds = new ClassValue<>() {
+        @Override
+        protected HashMap<String, Integer> computeValue(Class<?> type) {
+            return new HashMap<>();
+        }
+    };
+    private String[] frameNames = new String[256];
+    private int frameCount;
+    private int[] nodeFrame = new int[1024];
+    private int[] nodeFirstChild = new int[1024];
+    private int[] nodeNextSibling = new int[1024];
+    private long[] nodeSamples = new long[1024];
+    private int nodeCount;
+    private long samples;
+
+    public SamplingProfiler(Duration interval, int maxDepth, double maxOverhead) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be at least 1");
+        }
+        if (!(maxOverhead > 0 && maxOverhead <= 1)) {
+            throw new IllegalArgumentException("maxOverhead must be in (0, 1]");
+        }
+        this.intervalNanos = interval.toNanos();
+        this.maxDepth = maxDepth;
+        this.maxOverhead = maxOverhead;
+        this.walker = StackWalker.getInstance(Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE), maxDepth + 4);
+        frameNames[TRUNCATED_FRAME] = "[truncated]";
+        frameCount = 1;
+        clearTrie();
+    }
+
+    public synchronized void start() {
+        if (sampler != null) {
+            throw new IllegalStateException("Profiler already started");
+        }
+        sampler = new Thread(this::sampleLoop, "sampling-profiler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    // Stops sampling; the aggregated samples stay available
+    public void stop() {
+        Thread thread = sampler;
+        if (thread != null) {
+            sampler = null;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    // Makes the calling thread a worker: its checkpoints take samples from now on
+    public void register() {
+        if (currentWorker.get() == null) {
+            Worker worker = new Worker();
+            currentWorker.set(worker);
+            workers.add(worker);
+        }
+    }
+
+    public void unregister() {
+        Worker worker = currentWorker.get();
+        if (worker != null) {
+            currentWorker.remove();
+            workers.remove(worker);
+        }
+    }
+
+    // Takes a sample of the calling thread's stack if one is due; cheap otherwise.
+    // No-op on threads that are not registered.
+    public void checkpoint() {
+        Worker worker = currentWorker.get();
+        if (worker != null && worker.sampleRequested) {
+            sample(worker);
+        }
+    }
+
+    // Kept out of checkpoint() so the check stays small enough to inline into the caller's loop
+    private void sample(Worker worker) {
+        worker.sampleRequested = false;
+        long start = now();
+        walker.walk(worker);
+        walkNanos.addAndGet(now() - start);
+    }
+
+    private long now() {
+        return cpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    public synchronized long samples() {
+        return samples;
+    }
+
+    // Ticks the sampler skipped because the walks were over the overhead budget
+    public long skippedTicks() {
+        return skippedTicks.get();
+    }
+
+    // Total time workers spent taking samples
+    public Duration sampleTime() {
+        return Duration.ofNanos(walkNanos.get());
+    }
+
+    public synchronized void reset() {
+        clearTrie();
+        samples = 0;
+    }
+
+    // Folded stacks, one line per distinct stack: "outer;...;inner count".
+    // The format of Brendan Gregg's stackcollapse scripts, read by flamegraph.pl and speedscope.
+    public synchronized void writeFolded(Appendable out) throws IOException {
+        StringBuilder path = new StringBuilder();
+        for (int child = nodeFirstChild[0]; child != NO_NODE; child = nodeNextSibling[child]) {
+            writeFolded(child, path, out);
+        }
+    }
+
+    private void writeFolded(int node, StringBuilder path, Appendable out) throws IOException {
+        int length = path.length();
+        if (length > 0) {
+            path.append(';');
+        }
+        path.append(frameNames[nodeFrame[node]]);
+        if (nodeSamples[node] > 0) {
+            out.append(path).append(' ').append(Long.toString(nodeSamples[node])).append('\n');
+        }
+        for (int child = nodeFirstChild[node]; child != NO_NODE; child = nodeNextSibling[child]) {
+            writeFolded(child, path, out);
+        }
+        path.setLength(length);
+    }
+
+    private void sampleLoop() {
+        long lastWalkNanos = walkNanos.get();
+        // Walk time over budget, carried to the next ticks; never negative, so idle ticks do not
+        // save up budget for a burst of samples later
+        long debt = 0;
+        while (sampler == Thread.currentThread()) {
+            LockSupport.parkNanos(intervalNanos);
+            if (sampler != Thread.currentThread()) {
+                break;
+            }
+            long spent = walkNanos.get();
+            long budget = (long) (intervalNanos * maxOverhead * Math.max(1, workers.size()));
+            debt = Math.max(0, debt + (spent - lastWalkNanos) - budget);
+            lastWalkNanos = spent;
+            if (debt > 0) {
+                skippedTicks.incrementAndGet();
+                continue;
+            }
+            for (Worker worker : workers) {
+                worker.sampleRequested = true;
+            }
+        }
+    }
+
+    // Adds one sample: classes/methods hold the innermost frame first
+    private synchronized void record(Class<?>[] classes, String[] methods, int depth, boolean truncated) {
+        int node = 0;
+        if (truncated) {
+            node = child(node, TRUNCATED_FRAME);
+        }
+        for (int i = depth - 1; i >= 0; i--) {
+            node = child(node, frameId(classes[i], methods[i]));
+        }
+        nodeSamples[node]++;
+        samples++;
+    }
+
+    private int frameId(Class<?> declaringClass, String method) {
+        HashMap<String, Integer> ids = frameIds.get(declaringClass);
+        Integer id = ids.get(method);
+        if (id == null) {
+            if (frameCount == frameNames.length) {
+                frameNames = Arrays.copyOf(frameNames, frameCount * 2);
+            }
+            frameNames[frameCount] = declaringClass.getName() + "." + method;
+            id = frameCount++;
+            ids.put(method, id);
+        }
+        return id;
+    }
+
+    private int child(int parent, int frame) {
+        for (int child = nodeFirstChild[parent]; child != NO_NODE; child = nodeNextSibling[child]) {
+            if (nodeFrame[child] == frame) {
+                return child;
+            }
+        }
+        int child = newNode(frame);
+        nodeNextSibling[child] = nodeFirstChild[parent];
+        nodeFirstChild[parent] = child;
+        return child;
+    }
+
+    private int newNode(int frame) {
+        if (nodeCount == nodeFrame.length) {
+            int capacity = nodeCount * 2;
+            nodeFrame = Arrays.copyOf(nodeFrame, capacity);
+            nodeFirstChild = Arrays.copyOf(nodeFirstChild, capacity);
+            nodeNextSibling = Arrays.copyOf(nodeNextSibling, capacity);
+            nodeSamples = Arrays.copyOf(nodeSamples, capacity);
+        }
+        int node = nodeCount++;
+        nodeFrame[node] = frame;
+        nodeFirstChild[node] = NO_NODE;
+        nodeNextSibling[node] = NO_NODE;
+        nodeSamples[node] = 0;
+        return node;
+    }
+
+    private void clearTrie() {
+        nodeCount = 0;
+        // The root: no frame of its own
+        newNode(NO_NODE);
+    }
+
+    // One per registered thread: the sample flag and the walk function with its scratch space
+    private final class Worker implements Function<Stream<StackWalker.StackFrame>, Void> {
+        // Set by the sampler thread, cleared by the worker
+        volatile boolean sampleRequested;
+        final Class<?>[] classes = new Class<?>[maxDepth];
+        final String[] methods = new String[maxDepth];
+
+        @Override
+        public Void apply(Stream<StackWalker.StackFrame> frames) {
+            int depth = 0;
+            Iterator<StackWalker.StackFrame> iterator = frames.iterator();
+            // Frames are produced on demand: a deep stack is not walked past maxDepth
+            while (depth < maxDepth && iterator.hasNext()) {
+                StackWalker.StackFrame frame = iterator.next();
+                Class<?> declaringClass = frame.getDeclaringClass();
+                if (declaringClass.getNestHost() == SamplingProfiler.class) {
+                    // checkpoint() and this walk, not the worker's code
+                    continue;
+                }
+                classes[depth] = declaringClass;
+                methods[depth] = frame.getMethodName();
+                depth++;
+            }
+            if (depth > 0) {
+                record(classes, methods, depth, iterator.hasNext());
+            }
+            // Do not keep classes reachable between samples
+            Arrays.fill(classes, 0, depth, null);
+            return null;
+        }
+    }
+}
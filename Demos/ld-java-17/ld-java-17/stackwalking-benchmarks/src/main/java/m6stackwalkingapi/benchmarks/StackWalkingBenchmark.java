@@ -0,0 +1,146 @@
+package m6stackwalkingapi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// JMH version of m6stackwalkingapi.StackTracePerformanceTest.
+// The hand-rolled test warms up for 1000 iterations and throws its traces away, so the JIT is free
+// to drop part of the work it claims to measure. Here JMH does warm-up, forks and timing, and every
+// result goes into a Blackhole.
+//
+// Every capture happens `depth` frames below the benchmark method (a real stack, not inlined away),
+// because full captures cost per frame while limited StackWalker walks should not:
+//   threadGetStackTrace / throwableGetStackTrace   every frame, as StackTraceElement[]
+//   throwableFillInOnly                             construction only (the backtrace, not resolved)
+//   walkAllFrames                                   StackWalker, every frame collected
+//   walkLimited / walkLimitedWithClass              StackWalker, first `limit` frames only
+//   callerClass                                     StackWalker.getCallerClass()
+//   stacklessException                              writableStackTrace=false, as in PaymentFailureException
+//
+// ns/op comes from JMH; bytes/op from the GC profiler (gc.alloc.rate.norm):
+//   mvn package && java -jar target/benchmarks.jar -prof gc
+// or run main() from the IDE, which adds the GC profiler itself.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(java.util.concurrent.TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class StackWalkingBenchmark {
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final StackWalker CLASS_WALKER =
+            StackWalker.getInstance(Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE));
+
+    @Param({"8", "32", "128"})
+    public int depth;
+
+    // Only the limited walks vary by limit
+    @State(Scope.Thread)
+    public static class Limit {
+        @Param({"1", "4", "16"})
+        public int limit;
+    }
+
+    private enum Capture {
+        THREAD_STACK_TRACE, THROWABLE_STACK_TRACE, THROWABLE_FILL_IN, WALK_ALL,
+        WALK_LIMITED, WALK_LIMITED_WITH_CLASS, CALLER_CLASS, STACKLESS
+    }
+
+    @Benchmark
+    public void threadGetStackTrace(Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.THREAD_STACK_TRACE, 0));
+    }
+
+    @Benchmark
+    public void throwableGetStackTrace(Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.THROWABLE_STACK_TRACE, 0));
+    }
+
+    @Benchmark
+    public void throwableFillInOnly(Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.THROWABLE_FILL_IN, 0));
+    }
+
+    @Benchmark
+    public void walkAllFrames(Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.WALK_ALL, 0));
+    }
+
+    @Benchmark
+    public void walkLimited(Limit limit, Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.WALK_LIMITED, limit.limit));
+    }
+
+    @Benchmark
+    public void walkLimitedWithClass(Limit limit, Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.WALK_LIMITED_WITH_CLASS, limit.limit));
+    }
+
+    @Benchmark
+    public void callerClass(Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.CALLER_CLASS, 0));
+    }
+
+    @Benchmark
+    public void stacklessException(Blackhole blackhole) {
+        blackhole.consume(atDepth(depth, Capture.STACKLESS, 0));
+    }
+
+    // Not inlined, so each level is a real frame for the capture to walk
+    @CompilerControl(CompilerControl.Mode.DONT_INLINE)
+    private static Object atDepth(int remaining, Capture capture, int limit) {
+        if (remaining > 0) {
+            return atDepth(remaining - 1, capture, limit);
+        }
+        return capture(capture, limit);
+    }
+
+    private static Object capture(Capture capture, int limit) {
+        return switch (capture) {
+            case THREAD_STACK_TRACE -> Thread.currentThread().getStackTrace();
+            case THROWABLE_STACK_TRACE -> new Throwable().getStackTrace();
+            case THROWABLE_FILL_IN -> new Throwable();
+            case WALK_ALL -> WALKER.walk(frames -> frames.collect(Collectors.toList()));
+            case WALK_LIMITED -> WALKER.walk(frames -> frames.limit(limit)
+                    .map(StackWalker.StackFrame::getMethodName)
+                    .collect(Collectors.toList()));
+            case WALK_LIMITED_WITH_CLASS -> CLASS_WALKER.walk(frames -> frames.limit(limit)
+                    .map(StackWalker.StackFrame::getDeclaringClass)
+                    .collect(Collectors.toList()));
+            case CALLER_CLASS -> CLASS_WALKER.getCallerClass();
+            case STACKLESS -> new StacklessFailure("Payment processing failed");
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StackWalkingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    private static final class StacklessFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StacklessFailure(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
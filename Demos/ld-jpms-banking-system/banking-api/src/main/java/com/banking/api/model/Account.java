@@ -10,13 +10,36 @@ public interface Account {
     void deposit(BigDecimal amount);
     void withdraw(BigDecimal amount) throws InsufficientFundsException;
 
+    // Same as withdraw, but a decline is returned instead of thrown. Implementations override this
+    // (and build withdraw on top of it), so callers that expect declines never pay for an exception.
+    default WithdrawResult tryWithdraw(BigDecimal amount) {
+        try {
+            withdraw(amount);
+            return WithdrawResult.SUCCESS;
+        } catch (InsufficientFundsException e) {
+            return WithdrawResult.INSUFFICIENT_FUNDS;
+        }
+    }
+
     enum AccountType {
         SAVINGS, CHECKING
     }
 
+    // An expected business failure, so it is stackless: no fillInStackTrace on construction,
+    // which is most of the cost of a thrown exception. shared() returns one preallocated,
+    // immutable instance for the common message, so a decline allocates nothing either.
+    // -Dbanking.exceptions.stackTraces=true brings back fresh instances with stack traces for debugging.
     class InsufficientFundsException extends Exception {
+        private static final long serialVersionUID = 1L;
+        private static final boolean STACK_TRACES = Boolean.getBoolean("banking.exceptions.stackTraces");
+        private static final InsufficientFundsException SHARED = new InsufficientFundsException("Insufficient funds for withdrawal");
+
         public InsufficientFundsException(String insufficientFundsForWithdrawal) {
-            super(insufficientFundsForWithdrawal);
+            super(insufficientFundsForWithdrawal, null, false, STACK_TRACES);
+        }
+
+        public static InsufficientFundsException shared() {
+            return STACK_TRACES ? new InsufficientFundsException(SHARED.getMessage()) : SHARED;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.banking.api.model;
+
+// Result of Account.tryWithdraw: an expected business outcome as a plain value.
+// Declining a withdrawal this way allocates nothing and unwinds nothing, so the declined
+// path costs about the same as the successful one.
+public enum WithdrawResult {
+    SUCCESS, INSUFFICIENT_FUNDS;
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+}
@@ -0,0 +1,37 @@
+package com.banking.api.service;
+
+// Service provider interface for account ID generation.
+// Implementations are discovered with ServiceLoader (provides com.banking.api.service.AccountIdGenerator
+// with ...); without one, banking-core falls back to its time-ordered default.
+// IDs are primitive 64-bit numbers; the text form handed out through Account.getAccountId()
+// is always the fixed-width hex rendering below, so any generator's IDs can be parsed back.
+public interface AccountIdGenerator {
+    int TEXT_LENGTH = 16;
+
+    // Must be unique for the lifetime of the book and safe to call from many threads at once
+    long nextId();
+
+    static String format(long id) {
+        char[] text = new char[TEXT_LENGTH];
+        for (int i = TEXT_LENGTH - 1; i >= 0; i--) {
+            text[i] = Character.forDigit((int) (id & 0xF), 16);
+            id >>>= 4;
+        }
+        return new String(text);
+    }
+
+    static long parse(String accountId) {
+        if (accountId == null || accountId.length() != TEXT_LENGTH) {
+            throw new IllegalArgumentException("Invalid account ID: " + accountId);
+        }
+        long id = 0;
+        for (int i = 0; i < TEXT_LENGTH; i++) {
+            int digit = Character.digit(accountId.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid account ID: " + accountId);
+            }
+            id = id << 4 | digit;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,9 @@
+package com.banking.api.service;
+
+import java.math.BigDecimal;
+
+// Immutable, consistent view of one account's balance, returned by BankingService.getBalanceSnapshot.
+// version counts the committed mutations of the account: two snapshots with the same version
+// always carry the same balance, and a higher version is a later state.
+public record BalanceSnapshot(String accountId, BigDecimal balance, long version) {
+}
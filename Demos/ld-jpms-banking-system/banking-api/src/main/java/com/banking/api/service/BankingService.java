@@ -2,11 +2,23 @@ package com.banking.api.service;
 
 import com.banking.api.model.Account;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 public interface BankingService {
     Account createAccount(String customerId, Account.AccountType type);
     Optional<Account> getAccount(String accountId);
+    // Lock-free read of an account's balance that never blocks writers; throws IllegalArgumentException for unknown IDs
+    BalanceSnapshot getBalanceSnapshot(String accountId);
+    // All accounts owned by the customer, in creation order (empty if the customer has none)
+    List<Account> findAccounts(String customerId);
+    // A declined transfer (insufficient funds) throws the stackless TransferFailedException
     void transfer(String fromAccountId, String toAccountId, BigDecimal amount);
+    // Retry-safe transfer: the first call with a given idempotency key executes it, and any retry with the
+    // same key returns that first outcome without moving money again. Failures are reported in the
+    // outcome rather than thrown. A null key means no deduplication.
+    TransferOutcome transfer(String idempotencyKey, TransferInstruction instruction);
+    // Applies the instructions in order and returns one outcome per instruction, in the same order
+    List<TransferOutcome> transferBatch(List<TransferInstruction> instructions);
     void listAccounts(String customerId);
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package com.banking.api.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Thrown by BankingService.transfer(from, to, amount) when a transfer is declined for a business
+// reason. Like Account.InsufficientFundsException it is stackless: declines are expected, and
+// for them the stack capture is what makes an exception expensive, not the throw. The shared
+// instance per status (of) is immutable, so it can be thrown from any thread.
+// -Dbanking.exceptions.stackTraces=true brings back fresh instances with stack traces for debugging.
+public class TransferFailedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final boolean STACK_TRACES = Boolean.getBoolean("banking.exceptions.stackTraces");
+    private static final Map<TransferOutcome.Status, TransferFailedException> SHARED = new EnumMap<>(TransferOutcome.Status.class);
+
+    static {
+        for (TransferOutcome.Status status : TransferOutcome.Status.values()) {
+            if (status != TransferOutcome.Status.COMPLETED) {
+                SHARED.put(status, new TransferFailedException(status));
+            }
+        }
+    }
+
+    private final TransferOutcome.Status status;
+
+    public TransferFailedException(TransferOutcome.Status status) {
+        super("Transfer failed: " + describe(status), null, false, STACK_TRACES);
+        this.status = status;
+    }
+
+    public static TransferFailedException of(TransferOutcome.Status status) {
+        TransferFailedException shared = SHARED.get(status);
+        if (shared == null) {
+            throw new IllegalArgumentException("Not a failure status: " + status);
+        }
+        return STACK_TRACES ? new TransferFailedException(status) : shared;
+    }
+
+    public TransferOutcome.Status getStatus() {
+        return status;
+    }
+
+    private static String describe(TransferOutcome.Status status) {
+        return switch (status) {
+            case INSUFFICIENT_FUNDS -> "Insufficient funds for withdrawal";
+            case INVALID_ACCOUNT -> "Invalid account ID";
+            case INVALID_AMOUNT -> "Invalid amount";
+            case COMPLETED -> "Completed";
+        };
+    }
+}
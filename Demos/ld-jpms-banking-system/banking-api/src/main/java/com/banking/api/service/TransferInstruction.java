@@ -0,0 +1,7 @@
+package com.banking.api.service;
+
+import java.math.BigDecimal;
+
+// One leg pair of a batch transfer: move amount from one account to another
+public record TransferInstruction(String fromAccountId, String toAccountId, BigDecimal amount) {
+}
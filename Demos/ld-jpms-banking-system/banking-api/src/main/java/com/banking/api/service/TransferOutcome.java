@@ -0,0 +1,14 @@
+package com.banking.api.service;
+
+// Per-instruction result of BankingService.transferBatch.
+// Failures are reported here instead of being thrown, so one bad instruction never aborts a batch.
+public record TransferOutcome(TransferInstruction instruction, Status status) {
+
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+
+    public enum Status {
+        COMPLETED, INSUFFICIENT_FUNDS, INVALID_ACCOUNT, INVALID_AMOUNT
+    }
+}
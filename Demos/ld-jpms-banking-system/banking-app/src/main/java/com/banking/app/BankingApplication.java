@@ -2,18 +2,35 @@ package com.banking.app;
 
 import com.banking.api.model.Account;
 import com.banking.api.service.BankingService;
+import com.banking.api.service.TransferInstruction;
+import com.banking.api.service.TransferOutcome;
 
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.ServiceLoader;
 
 public class BankingApplication {
     private final BankingService bankingService;
 
     public BankingApplication() {
-        this.bankingService = ServiceLoader.load(BankingService.class)
+        this.bankingService = loadBankingService();
+    }
+
+    // Resolves the BankingService provider through ServiceLoader.
+    // When several providers are on the module path, -Dbanking.service=<simple or fully qualified
+    // class name> selects one (e.g. FixedPointBankingServiceImpl); otherwise the first one wins.
+    public static BankingService loadBankingService() {
+        String selected = System.getProperty("banking.service");
+        return ServiceLoader.load(BankingService.class).stream()
+            .filter(provider -> selected == null
+                || provider.type().getName().equals(selected)
+                || provider.type().getSimpleName().equals(selected))
+            .map(ServiceLoader.Provider::get)
             .findFirst()
-            .orElseThrow(() -> new RuntimeException("No BankingService implementation found"));
+            .orElseThrow(() -> new RuntimeException(selected == null
+                ? "No BankingService implementation found"
+                : "No BankingService implementation named " + selected));
     }
 
     public void demonstrateOperations() {
@@ -37,6 +54,30 @@ public class BankingApplication {
             System.out.println("\nAccount status after transfer:");
             bankingService.listAccounts(customerId);
 
+            // Settle a batch: offsetting legs are netted and each account is mutated once
+            List<TransferOutcome> outcomes = bankingService.transferBatch(List.of(
+                new TransferInstruction(savingsAccount.getAccountId(), checkingAccount.getAccountId(), new BigDecimal("200.00")),
+                new TransferInstruction(checkingAccount.getAccountId(), savingsAccount.getAccountId(), new BigDecimal("150.00")),
+                new TransferInstruction(savingsAccount.getAccountId(), checkingAccount.getAccountId(), new BigDecimal("5000.00"))));
+
+            System.out.println("\nBatch transfer outcomes:");
+            outcomes.forEach(outcome -> System.out.printf("%s -> %s $%.2f: %s%n",
+                outcome.instruction().fromAccountId(),
+                outcome.instruction().toAccountId(),
+                outcome.instruction().amount(),
+                outcome.status()));
+
+            System.out.println("\nAccount status after batch:");
+            bankingService.listAccounts(customerId);
+
+            // A client retrying after a timeout sends the same idempotency key: the money moves once
+            TransferInstruction payment = new TransferInstruction(checkingAccount.getAccountId(),
+                savingsAccount.getAccountId(), new BigDecimal("100.00"));
+            TransferOutcome first = bankingService.transfer("payment-0001", payment);
+            TransferOutcome retry = bankingService.transfer("payment-0001", payment);
+            System.out.printf("%nIdempotent transfer: first %s, retry %s%n", first.status(), retry.status());
+            bankingService.listAccounts(customerId);
+
         } catch (Exception e) {
             System.err.println("Error during operations: " + e.getMessage());
         }
@@ -46,5 +87,17 @@ public class BankingApplication {
         System.out.println("THANK YOU SO MUCH! A LITTLE MORE TO GO! HOPE YOU HAD A WONDERFUL LEARNING! ALL THE BEST!");
         BankingApplication app = new BankingApplication();
         app.demonstrateOperations();
+        app.shutdown();
+    }
+
+    // Durable providers (e.g. JournaledBankingServiceImpl) flush and release their files on close
+    public void shutdown() {
+        if (bankingService instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("Error during shutdown: " + e.getMessage());
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.banking.app;
+
+import com.banking.api.model.Account;
+import com.banking.api.service.BankingService;
+import com.banking.api.service.TransferInstruction;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Restart test for the durable provider.
+// Opens a book in a fresh journal directory and mutates it through every journaled path, using
+// account IDs spelled in upper case (IDs parse case-insensitively, so the service accepts them).
+// Meanwhile one thread creates accounts while another deposits into each of them as soon as it
+// is visible, so deposits race the journaling of their account's creation.
+// Then closes the service, starts a second instance on the same directory and checks that
+// recovery reproduces every balance.
+//
+// Usage: JournalRecoveryTest   (-Dbanking.service=... picks the provider, JournaledBankingServiceImpl by default)
+public class JournalRecoveryTest {
+    private static final String RACE_CUSTOMER = "CUST-RACE";
+    private static final int RACE_ACCOUNTS = 2_000;
+    private static final BigDecimal RACE_DEPOSIT = new BigDecimal("1.00");
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("banking-journal-recovery");
+        System.setProperty("banking.journal.dir", directory.toString());
+        if (System.getProperty("banking.service") == null) {
+            System.setProperty("banking.service", "JournaledBankingServiceImpl");
+        }
+        try {
+            run();
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void run() throws Exception {
+        BankingService before = BankingApplication.loadBankingService();
+        Account alice = before.createAccount("CUST001", Account.AccountType.CHECKING);
+        Account bob = before.createAccount("CUST002", Account.AccountType.SAVINGS);
+        String aliceUpper = alice.getAccountId().toUpperCase(Locale.ROOT);
+        String bobUpper = bob.getAccountId().toUpperCase(Locale.ROOT);
+        if (aliceUpper.equals(alice.getAccountId()) || bobUpper.equals(bob.getAccountId())) {
+            System.err.println("FAILED: account IDs have no letters to upper-case; rerun");
+            System.exit(1);
+        }
+
+        alice.deposit(new BigDecimal("1000.00"));
+        before.getAccount(bobUpper).orElseThrow().deposit(new BigDecimal("200.00"));
+        before.transfer(aliceUpper, bobUpper, new BigDecimal("100.00"));
+        before.transferBatch(List.of(
+            new TransferInstruction(aliceUpper, bobUpper, new BigDecimal("50.00")),
+            new TransferInstruction(bobUpper, aliceUpper, new BigDecimal("25.00"))));
+        before.transfer("key-1", new TransferInstruction(bobUpper, aliceUpper, new BigDecimal("10.00")));
+        before.getAccount(aliceUpper).orElseThrow().withdraw(new BigDecimal("5.00"));
+
+        raceCreationAgainstDeposits(before);
+
+        BigDecimal aliceBalance = before.getAccount(alice.getAccountId()).orElseThrow().getBalance();
+        BigDecimal bobBalance = before.getAccount(bob.getAccountId()).orElseThrow().getBalance();
+        close(before);
+
+        BankingService after = BankingApplication.loadBankingService();
+        try {
+            check("upper-case ID", after, aliceUpper, aliceBalance);
+            check("canonical ID", after, alice.getAccountId(), aliceBalance);
+            check("canonical ID", after, bob.getAccountId(), bobBalance);
+            List<Account> raced = after.findAccounts(RACE_CUSTOMER);
+            if (raced.size() != RACE_ACCOUNTS) {
+                System.err.println("FAILED: recovered " + raced.size() + " of " + RACE_ACCOUNTS + " raced accounts");
+                System.exit(1);
+            }
+            for (Account account : raced) {
+                check("raced account", after, account.getAccountId(), RACE_DEPOSIT);
+            }
+        } finally {
+            close(after);
+        }
+        System.out.println("PASSED: balances recovered (" + aliceBalance + ", " + bobBalance + ", "
+            + RACE_ACCOUNTS + " raced accounts)");
+    }
+
+    // Deposits into every account of RACE_CUSTOMER the moment findAccounts shows it, while the
+    // accounts are still being created
+    private static void raceCreationAgainstDeposits(BankingService service) throws InterruptedException {
+        Thread creator = new Thread(() -> {
+            for (int i = 0; i < RACE_ACCOUNTS; i++) {
+                service.createAccount(RACE_CUSTOMER, Account.AccountType.CHECKING);
+            }
+        }, "race-creator");
+        creator.start();
+        Set<String> deposited = new HashSet<>();
+        while (deposited.size() < RACE_ACCOUNTS) {
+            for (Account account : service.findAccounts(RACE_CUSTOMER)) {
+                if (deposited.add(account.getAccountId())) {
+                    account.deposit(RACE_DEPOSIT);
+                }
+            }
+            if (!creator.isAlive() && service.findAccounts(RACE_CUSTOMER).size() < RACE_ACCOUNTS) {
+                System.err.println("FAILED: the creator thread stopped early");
+                System.exit(1);
+            }
+        }
+        creator.join();
+    }
+
+    private static void check(String label, BankingService service, String accountId, BigDecimal expected) {
+        BigDecimal actual = service.getAccount(accountId).orElseThrow(
+            () -> new IllegalStateException("Account " + accountId + " not recovered")).getBalance();
+        if (actual.compareTo(expected) != 0) {
+            System.err.println("FAILED: " + label + " " + accountId + " recovered " + actual + ", expected " + expected);
+            System.exit(1);
+        }
+    }
+
+    private static void close(BankingService service) throws Exception {
+        if (service instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.banking.app;
+
+import com.banking.api.model.Account;
+import com.banking.api.service.BankingService;
+import com.banking.api.service.TransferFailedException;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Multi-threaded stress test for the transfer engine.
+// Many threads fire random transfers (including reversed pairs and self-transfers, which is
+// exactly what deadlocks a naive lock-per-account design) at the ServiceLoader-resolved
+// BankingService, then the total money in the book is checked against what was deposited.
+//
+// Usage: TransferStressTest [accounts] [threads] [transfers]   (-Dbanking.service=... picks the provider)
+public class TransferStressTest {
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    public static void main(String[] args) throws Exception {
+        int accountCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long transferCount = args.length > 2 ? Long.parseLong(args[2]) : 2_000_000L;
+
+        BankingService bankingService = BankingApplication.loadBankingService();
+
+        // Open the book
+        String[] accountIds = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            Account account = bankingService.createAccount("CUST" + (i % 1000), Account.AccountType.CHECKING);
+            account.deposit(OPENING_BALANCE);
+            accountIds[i] = account.getAccountId();
+        }
+        BigDecimal expectedTotal = OPENING_BALANCE.multiply(BigDecimal.valueOf(accountCount));
+
+        // Run random transfers from all threads at once
+        AtomicLong completed = new AtomicLong();
+        AtomicLong declined = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        long perThread = transferCount / threadCount;
+        for (int t = 0; t < threadCount; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (long i = 0; i < perThread; i++) {
+                        String from = accountIds[random.nextInt(accountCount)];
+                        String to = accountIds[random.nextInt(accountCount)];
+                        BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 50_000), 2);
+                        try {
+                            bankingService.transfer(from, to, amount);
+                            completed.incrementAndGet();
+                        } catch (TransferFailedException e) {
+                            // Only a business decline counts; any other exception is a bug and fails the run
+                            declined.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException | Error e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                }
+            }, "transfer-stress-" + t);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        if (failure.get() != null) {
+            System.err.println("FAILED: unexpected exception from a transfer");
+            failure.get().printStackTrace();
+            System.exit(1);
+        }
+
+        // Money conservation: nothing may be created or destroyed by concurrent transfers
+        BigDecimal actualTotal = BigDecimal.ZERO;
+        for (String accountId : accountIds) {
+            Account account = bankingService.getAccount(accountId).orElseThrow();
+            if (account.getBalance().signum() < 0) {
+                throw new IllegalStateException("Negative balance on account " + accountId);
+            }
+            actualTotal = actualTotal.add(account.getBalance());
+        }
+
+        long attempted = completed.get() + declined.get();
+        System.out.printf("Accounts: %d, Threads: %d, Transfers: %d (completed %d, declined %d)%n",
+            accountCount, threadCount, attempted, completed.get(), declined.get());
+        System.out.printf("Elapsed: %d ms, Throughput: %.0f transfers/s%n",
+            elapsed / 1_000_000, attempted * 1_000_000_000.0 / elapsed);
+        System.out.println("Expected total: " + expectedTotal + ", Actual total: " + actualTotal);
+        if (bankingService instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        if (actualTotal.compareTo(expectedTotal) != 0) {
+            System.err.println("FAILED: money was not conserved");
+            System.exit(1);
+        }
+        System.out.println("PASSED: money conserved");
+    }
+}
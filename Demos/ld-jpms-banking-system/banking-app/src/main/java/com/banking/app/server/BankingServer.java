@@ -0,0 +1,92 @@
+package com.banking.app.server;
+
+import com.banking.api.service.BankingService;
+import com.banking.app.BankingApplication;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+
+// Local socket front-end for the ServiceLoader-resolved BankingService.
+// Each accepted connection gets its own thread (virtual on Java 21+) running a blocking
+// read-process-write loop, see CommandProcessor for the protocol.
+// Responses are flushed only when no further request is already buffered, so pipelining
+// clients get batched writes while request/response clients still see every reply at once.
+//
+// Usage: BankingServer [port]   (default 7070, loopback only)
+public class BankingServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7070;
+    private static final int ACCEPT_BACKLOG = 4096;
+
+    private final CommandProcessor processor;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = ConnectionThreads.newPerTaskExecutor("banking-connection-");
+
+    public BankingServer(BankingService bankingService, int port) throws IOException {
+        this.processor = new CommandProcessor(bankingService);
+        this.serverSocket = new ServerSocket(port, ACCEPT_BACKLOG, InetAddress.getLoopbackAddress());
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    // Accepts connections until the server is closed
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                out.write(processor.process(line));
+                out.write('\n');
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // Client went away; nothing to clean up beyond the socket
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        BankingService bankingService = BankingApplication.loadBankingService();
+        try (BankingServer server = new BankingServer(bankingService, port)) {
+            System.out.printf("Banking server (%s) listening on %s:%d using %s threads%n",
+                bankingService.getClass().getSimpleName(), InetAddress.getLoopbackAddress().getHostAddress(),
+                server.port(), ConnectionThreads.virtual() ? "virtual" : "platform");
+            server.serve();
+        }
+    }
+}
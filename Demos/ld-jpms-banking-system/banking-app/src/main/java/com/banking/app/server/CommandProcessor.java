@@ -0,0 +1,106 @@
+package com.banking.app.server;
+
+import com.banking.api.model.Account;
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.BalanceSnapshot;
+import com.banking.api.service.BankingService;
+import com.banking.api.service.TransferFailedException;
+import com.banking.api.service.TransferInstruction;
+import com.banking.api.service.TransferOutcome;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+// Line protocol of the banking server. One command per line, fields separated by single spaces:
+//
+//   CREATE   <customerId> <SAVINGS|CHECKING>   -> OK <accountId>
+//   DEPOSIT  <accountId> <amount>              -> OK <balance>
+//   WITHDRAW <accountId> <amount>              -> OK <balance>
+//   TRANSFER <fromAccountId> <toAccountId> <amount> [idempotencyKey] -> OK
+//            with a key, a retried TRANSFER answers with the first attempt's result instead of moving money again
+//   BALANCE  <accountId>                       -> OK <balance> <version>
+//
+// Failures answer "ERR <code> <reason>" and leave the connection open. The code is one word:
+//   INSUFFICIENT_FUNDS / INVALID_ACCOUNT / INVALID_AMOUNT  a declined withdrawal or transfer (TransferOutcome.Status),
+//                                                          the same with or without an idempotency key
+//   INVALID_REQUEST                                        malformed command, bad argument or unknown account
+//   INTERNAL                                               anything else (a server bug)
+public class CommandProcessor {
+    private final BankingService bankingService;
+
+    public CommandProcessor(BankingService bankingService) {
+        this.bankingService = bankingService;
+    }
+
+    public String process(String line) {
+        String[] fields = line.trim().split(" ");
+        try {
+            switch (fields[0].toUpperCase()) {
+                case "CREATE": {
+                    expect(fields, 3);
+                    Account account = bankingService.createAccount(fields[1], Account.AccountType.valueOf(fields[2].toUpperCase()));
+                    return "OK " + account.getAccountId();
+                }
+                case "DEPOSIT": {
+                    expect(fields, 3);
+                    Account account = account(fields[1]);
+                    account.deposit(new BigDecimal(fields[2]));
+                    return "OK " + account.getBalance().toPlainString();
+                }
+                case "WITHDRAW": {
+                    expect(fields, 3);
+                    Account account = account(fields[1]);
+                    // Declines are routine here, so take the result-returning path, not the exception
+                    if (account.tryWithdraw(new BigDecimal(fields[2])) == WithdrawResult.INSUFFICIENT_FUNDS) {
+                        return error(TransferOutcome.Status.INSUFFICIENT_FUNDS.name(), "Insufficient funds for withdrawal");
+                    }
+                    return "OK " + account.getBalance().toPlainString();
+                }
+                case "TRANSFER": {
+                    if (fields.length == 5) {
+                        TransferOutcome outcome = bankingService.transfer(fields[4],
+                            new TransferInstruction(fields[1], fields[2], new BigDecimal(fields[3])));
+                        return outcome.isCompleted() ? "OK" : declined(TransferFailedException.of(outcome.status()));
+                    }
+                    expect(fields, 4);
+                    bankingService.transfer(fields[1], fields[2], new BigDecimal(fields[3]));
+                    return "OK";
+                }
+                case "BALANCE": {
+                    expect(fields, 2);
+                    // Lock-free snapshot: balance inquiries never queue behind transfers
+                    BalanceSnapshot snapshot = bankingService.getBalanceSnapshot(fields[1]);
+                    return "OK " + snapshot.balance().toPlainString() + " " + snapshot.version();
+                }
+                default:
+                    return error("INVALID_REQUEST", "Unknown command " + fields[0]);
+            }
+        } catch (TransferFailedException e) {
+            return declined(e);
+        } catch (IllegalArgumentException e) {
+            // Also NumberFormatException (amounts) and unknown enum constants (account types)
+            return error("INVALID_REQUEST", e.getMessage());
+        } catch (RuntimeException e) {
+            return error("INTERNAL", e.toString());
+        }
+    }
+
+    private static String declined(TransferFailedException e) {
+        return error(e.getStatus().name(), e.getMessage());
+    }
+
+    private static String error(String code, String reason) {
+        return reason == null ? "ERR " + code : "ERR " + code + " " + reason;
+    }
+
+    private Account account(String accountId) {
+        Optional<Account> account = bankingService.getAccount(accountId);
+        return account.orElseThrow(() -> new IllegalArgumentException("Invalid account ID"));
+    }
+
+    private static void expect(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException(fields[0].toUpperCase() + " expects " + (count - 1) + " arguments");
+        }
+    }
+}
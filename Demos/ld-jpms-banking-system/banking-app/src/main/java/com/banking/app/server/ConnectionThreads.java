@@ -0,0 +1,38 @@
+package com.banking.app.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One thread per connection. On Java 21+ these are virtual threads, so tens of thousands of mostly
+// idle connections cost a few KB each; the module still targets Java 17, so the virtual-thread
+// factory is looked up reflectively and platform daemon threads are the fallback.
+final class ConnectionThreads {
+
+    private ConnectionThreads() {
+    }
+
+    static ExecutorService newPerTaskExecutor(String namePrefix) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, namePrefix + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    static boolean virtual() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+}
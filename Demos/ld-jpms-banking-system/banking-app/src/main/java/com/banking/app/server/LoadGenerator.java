@@ -0,0 +1,127 @@
+package com.banking.app.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Load generator for BankingServer.
+// Opens many concurrent connections (one client thread each, virtual on Java 21+). Every
+// connection creates two accounts, then sends a request/response mix of 80% BALANCE,
+// 10% DEPOSIT and 10% TRANSFER, timing each round trip. Reports throughput and p50/p99/p999.
+//
+// Usage: LoadGenerator [port] [connections] [requestsPerConnection]
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : BankingServer.DEFAULT_PORT;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        // Checked (and the latency array allocated) before any client connects and loads the server
+        if (connections < 1 || requests < 1) {
+            throw new IllegalArgumentException("connections and requestsPerConnection must be at least 1");
+        }
+        long total = (long) connections * requests;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many requests to record every latency: " + total
+                + " (connections x requestsPerConnection must stay below " + (Integer.MAX_VALUE - 8) + ")");
+        }
+        long[] latencies = new long[(int) total];
+
+        CountDownLatch connected = new CountDownLatch(connections);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>(connections);
+        ExecutorService clients = ConnectionThreads.newPerTaskExecutor("banking-client-");
+        try {
+            for (int c = 0; c < connections; c++) {
+                int client = c;
+                results.add(clients.submit(() -> runClient(port, client, requests, connected, start)));
+            }
+            connected.await();
+            long begin = System.nanoTime();
+            start.countDown();
+
+            int filled = 0;
+            for (Future<long[]> result : results) {
+                long[] clientLatencies = result.get();
+                System.arraycopy(clientLatencies, 0, latencies, filled, clientLatencies.length);
+                filled += clientLatencies.length;
+            }
+            long elapsed = System.nanoTime() - begin;
+
+            Arrays.sort(latencies, 0, filled);
+            System.out.printf("Connections: %d, Requests: %d, Elapsed: %d ms, Throughput: %.0f req/s%n",
+                connections, filled, elapsed / 1_000_000, filled * 1_000_000_000.0 / elapsed);
+            System.out.printf("Latency (us)  p50: %.1f  p99: %.1f  p999: %.1f  max: %.1f%n",
+                percentile(latencies, filled, 0.50), percentile(latencies, filled, 0.99),
+                percentile(latencies, filled, 0.999), latencies[filled - 1] / 1_000.0);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    // Counts connected down exactly once, even when connecting or the setup fails: main must not wait
+    // forever for a client that is gone (the failure surfaces from the client's Future instead)
+    private static long[] runClient(int port, int client, int requests, CountDownLatch connected, CountDownLatch start)
+        throws IOException, InterruptedException {
+        boolean ready = false;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = socket.getOutputStream()) {
+            socket.setTcpNoDelay(true);
+            String customerId = "LOAD" + client;
+            String first = call(in, out, "CREATE " + customerId + " CHECKING").substring(3);
+            String second = call(in, out, "CREATE " + customerId + " SAVINGS").substring(3);
+            call(in, out, "DEPOSIT " + first + " 1000000.00");
+            ready = true;
+            connected.countDown();
+            start.await();
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long[] latencies = new long[requests];
+            for (int i = 0; i < requests; i++) {
+                int pick = random.nextInt(10);
+                String request = pick == 0 ? "DEPOSIT " + second + " 1.00"
+                    : pick == 1 ? "TRANSFER " + first + " " + second + " 1.00"
+                    : "BALANCE " + first;
+                long sent = System.nanoTime();
+                call(in, out, request);
+                latencies[i] = System.nanoTime() - sent;
+            }
+            return latencies;
+        } finally {
+            if (!ready) {
+                connected.countDown();
+            }
+        }
+    }
+
+    private static String call(BufferedReader in, OutputStream out, String request) throws IOException {
+        out.write((request + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        String response = in.readLine();
+        if (response == null) {
+            throw new UncheckedIOException(new IOException("Server closed the connection"));
+        }
+        if (!response.startsWith("OK")) {
+            throw new IllegalStateException(request + " -> " + response);
+        }
+        return response;
+    }
+
+    private static double percentile(long[] sorted, int count, double percentile) {
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, index)] / 1_000.0;
+    }
+}
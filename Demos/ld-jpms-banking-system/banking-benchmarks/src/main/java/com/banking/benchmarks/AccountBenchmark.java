@@ -0,0 +1,66 @@
+package com.banking.benchmarks;
+
+import com.banking.api.model.Account;
+import com.banking.core.model.AccountImpl;
+import com.banking.core.model.FixedPointAccountImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// BigDecimal-backed AccountImpl vs long minor-unit FixedPointAccountImpl.
+// Run with the GC profiler to see the allocation difference per operation:
+//   java -jar banking-benchmarks/target/benchmarks.jar AccountBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AccountBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    @Param({"BigDecimal", "FixedPoint"})
+    public String implementation;
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = "FixedPoint".equals(implementation)
+            ? new FixedPointAccountImpl(1L, "CUST001", Account.AccountType.CHECKING)
+            : new AccountImpl(1L, "CUST001", Account.AccountType.CHECKING);
+        account.deposit(new BigDecimal("1000000.00"));
+    }
+
+    @Benchmark
+    public void depositThenWithdraw() throws Account.InsufficientFundsException {
+        account.deposit(AMOUNT);
+        account.withdraw(AMOUNT);
+    }
+
+    @Benchmark
+    public void getBalance(Blackhole blackhole) {
+        blackhole.consume(account.getBalance());
+    }
+
+    // Same account hammered from four threads: monitor contention vs CAS retries
+    @Benchmark
+    @Threads(4)
+    public void contendedDepositThenWithdraw() throws Account.InsufficientFundsException {
+        account.deposit(AMOUNT);
+        account.withdraw(AMOUNT);
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.benchmarks;
+
+import com.banking.api.model.Account;
+import com.banking.core.id.TimeOrderedIdGenerator;
+import com.banking.core.service.BankingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Account ID generation: UUID.randomUUID().toString() (SecureRandom lock + 36 char String)
+// vs the per-thread time-ordered generator, and end-to-end bulk account creation.
+// Compare the 1 and 4 thread variants to see whether throughput scales with threads.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class AccountIdBenchmark {
+    private final TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+    private BankingServiceImpl bankingService;
+
+    // A fresh book per iteration keeps the registry from growing without bound
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bankingService = new BankingServiceImpl();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public long timeOrderedId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long timeOrderedIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public Account createAccount() {
+        return bankingService.createAccount("CUST001", Account.AccountType.CHECKING);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Account createAccountContended() {
+        return bankingService.createAccount("CUST001", Account.AccountType.CHECKING);
+    }
+}
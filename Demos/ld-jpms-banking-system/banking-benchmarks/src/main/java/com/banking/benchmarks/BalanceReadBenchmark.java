@@ -0,0 +1,112 @@
+package com.banking.benchmarks;
+
+import com.banking.api.model.Account;
+import com.banking.api.service.BalanceSnapshot;
+import com.banking.api.service.BankingService;
+import com.banking.core.service.BankingServiceImpl;
+import com.banking.core.service.FixedPointBankingServiceImpl;
+import com.banking.core.service.OffHeapBankingServiceImpl;
+import com.banking.core.service.ShardedBankingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Balance inquiries while transfers are running, for every provider.
+// Each group runs three reader threads against one transfer thread over a small book (so readers
+// and the writer keep hitting the same accounts). JMH reports the readers' and the writer's
+// throughput separately: getBalanceSnapshot should scale with readers without slowing transfers.
+//   java -jar banking-benchmarks/target/benchmarks.jar BalanceReadBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class BalanceReadBenchmark {
+    private static final int ACCOUNTS = 64;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param({"BankingServiceImpl", "FixedPointBankingServiceImpl", "OffHeapBankingServiceImpl", "ShardedBankingServiceImpl"})
+    public String provider;
+
+    private BankingService bankingService;
+    private String[] accountIds;
+
+    @Setup
+    public void setUp() {
+        bankingService = switch (provider) {
+            case "FixedPointBankingServiceImpl" -> new FixedPointBankingServiceImpl();
+            case "OffHeapBankingServiceImpl" -> new OffHeapBankingServiceImpl();
+            case "ShardedBankingServiceImpl" -> new ShardedBankingServiceImpl();
+            default -> new BankingServiceImpl();
+        };
+        accountIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = bankingService.createAccount("CUST" + i, Account.AccountType.CHECKING);
+            account.deposit(OPENING_BALANCE);
+            accountIds[i] = account.getAccountId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (bankingService instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(3)
+    public BalanceSnapshot snapshotRead() {
+        return bankingService.getBalanceSnapshot(randomAccount());
+    }
+
+    @Benchmark
+    @Group("snapshot")
+    @GroupThreads(1)
+    public void snapshotTransfer() {
+        transferBetweenRandomAccounts();
+    }
+
+    // Baseline: the old read path, getAccount(...).getBalance()
+    @Benchmark
+    @Group("getAccount")
+    @GroupThreads(3)
+    public BigDecimal getAccountRead() {
+        return bankingService.getAccount(randomAccount()).orElseThrow().getBalance();
+    }
+
+    @Benchmark
+    @Group("getAccount")
+    @GroupThreads(1)
+    public void getAccountTransfer() {
+        transferBetweenRandomAccounts();
+    }
+
+    private String randomAccount() {
+        return accountIds[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    }
+
+    // Money only moves around the book, so the balances never run dry during a run
+    private void transferBetweenRandomAccounts() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        bankingService.transfer(accountIds[random.nextInt(ACCOUNTS)], accountIds[random.nextInt(ACCOUNTS)], AMOUNT);
+    }
+}
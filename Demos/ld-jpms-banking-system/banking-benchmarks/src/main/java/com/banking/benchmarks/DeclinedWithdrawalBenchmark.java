@@ -0,0 +1,89 @@
+package com.banking.benchmarks;
+
+import com.banking.api.model.Account;
+import com.banking.api.model.WithdrawResult;
+import com.banking.core.model.AccountImpl;
+import com.banking.core.model.FixedPointAccountImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Cost of a declined withdrawal compared with a successful one:
+//   successfulWithdrawal           baseline, funds available
+//   declinedWithResult             tryWithdraw() returning WithdrawResult.INSUFFICIENT_FUNDS
+//   declinedWithStacklessException withdraw() throwing the shared, stackless InsufficientFundsException
+//   declinedWithStackTrace         what the failure path used to cost: a new exception with a stack trace
+// Run with the GC profiler to see that only the last one allocates:
+//   java -jar banking-benchmarks/target/benchmarks.jar DeclinedWithdrawalBenchmark -prof gc
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DeclinedWithdrawalBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("12.34");
+
+    @Param({"BigDecimal", "FixedPoint"})
+    public String implementation;
+
+    private Account funded;
+    private Account empty;
+
+    @Setup
+    public void setUp() {
+        funded = newAccount(1L);
+        // Enough for every successful withdrawal a run can make
+        funded.deposit(new BigDecimal("1000000000000.00"));
+        empty = newAccount(2L);
+    }
+
+    private Account newAccount(long id) {
+        return "FixedPoint".equals(implementation)
+            ? new FixedPointAccountImpl(id, "CUST001", Account.AccountType.CHECKING)
+            : new AccountImpl(id, "CUST001", Account.AccountType.CHECKING);
+    }
+
+    @Benchmark
+    public WithdrawResult successfulWithdrawal() {
+        return funded.tryWithdraw(AMOUNT);
+    }
+
+    @Benchmark
+    public WithdrawResult declinedWithResult() {
+        return empty.tryWithdraw(AMOUNT);
+    }
+
+    @Benchmark
+    public Object declinedWithStacklessException() {
+        try {
+            empty.withdraw(AMOUNT);
+            return null;
+        } catch (Account.InsufficientFundsException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object declinedWithStackTrace() {
+        try {
+            if (empty.tryWithdraw(AMOUNT) == WithdrawResult.INSUFFICIENT_FUNDS) {
+                throw new IllegalStateException("Insufficient funds for withdrawal");
+            }
+            return null;
+        } catch (IllegalStateException e) {
+            return e;
+        }
+    }
+}
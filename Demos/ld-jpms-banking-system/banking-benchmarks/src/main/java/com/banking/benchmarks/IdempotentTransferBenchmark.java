@@ -0,0 +1,70 @@
+package com.banking.benchmarks;
+
+import com.banking.api.model.Account;
+import com.banking.api.service.TransferInstruction;
+import com.banking.api.service.TransferOutcome;
+import com.banking.core.service.BankingServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cost of idempotency keys on BankingService.transfer.
+// newKey pays for a dedupe-cache insert (and, once the cache is full, an eviction) on top of the
+// transfer; retriedKey is a client retry answered from the cache without touching any account.
+// The cache is sized small here so the eviction path is measured too.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dbanking.idempotency.maxKeys=65536")
+@State(Scope.Benchmark)
+public class IdempotentTransferBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    private final AtomicLong keys = new AtomicLong();
+    private BankingServiceImpl bankingService;
+    private TransferInstruction there;
+
+    @Setup
+    public void setUp() {
+        bankingService = new BankingServiceImpl();
+        Account from = bankingService.createAccount("CUST001", Account.AccountType.CHECKING);
+        Account to = bankingService.createAccount("CUST002", Account.AccountType.CHECKING);
+        from.deposit(new BigDecimal("1000000000.00"));
+        there = new TransferInstruction(from.getAccountId(), to.getAccountId(), AMOUNT);
+        bankingService.transfer("retried", there);
+    }
+
+    @Benchmark
+    public TransferOutcome withoutKey() {
+        return bankingService.transfer(null, there);
+    }
+
+    @Benchmark
+    public TransferOutcome newKey() {
+        return bankingService.transfer("key-" + keys.incrementAndGet(), there);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TransferOutcome newKeyContended() {
+        return bankingService.transfer("key-" + keys.incrementAndGet(), there);
+    }
+
+    @Benchmark
+    public TransferOutcome retriedKey() {
+        return bankingService.transfer("retried", there);
+    }
+}
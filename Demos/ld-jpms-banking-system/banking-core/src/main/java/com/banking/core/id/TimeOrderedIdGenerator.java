@@ -0,0 +1,51 @@
+package com.banking.core.id;
+
+import com.banking.api.service.AccountIdGenerator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Default AccountIdGenerator: time-ordered 64-bit IDs built from per-thread sequences.
+//
+//   42 bits  milliseconds since 2024-01-01 (good for ~139 years)
+//   10 bits  generator slot of the calling thread (1024 slots)
+//   12 bits  per-thread sequence within the millisecond (4096 IDs per thread per ms)
+//
+// Each thread owns a slot and its own sequence, so threads never contend with each other:
+// no lock, no shared CAS, no SecureRandom. When a thread exhausts its sequence within one
+// millisecond it borrows the next millisecond, which keeps its IDs strictly increasing.
+// Slots are reused once more than 1024 threads have generated IDs, so callers that can see
+// more threads than that should treat a duplicate as "try again" (BankingServiceImpl does).
+public class TimeOrderedIdGenerator implements AccountIdGenerator {
+    private static final long EPOCH = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int SLOT_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int SEQUENCE_MASK = (1 << SEQUENCE_BITS) - 1;
+
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final ThreadLocal<ThreadState> state =
+        ThreadLocal.withInitial(() -> new ThreadState(nextSlot.getAndIncrement() & SLOT_MASK));
+
+    @Override
+    public long nextId() {
+        ThreadState thread = state.get();
+        long now = System.currentTimeMillis() - EPOCH;
+        if (now > thread.millis) {
+            thread.millis = now;
+            thread.sequence = 0;
+        } else if (++thread.sequence > SEQUENCE_MASK) {
+            thread.millis++;
+            thread.sequence = 0;
+        }
+        return thread.millis << (SLOT_BITS + SEQUENCE_BITS) | (long) thread.slot << SEQUENCE_BITS | thread.sequence;
+    }
+
+    private static final class ThreadState {
+        private final int slot;
+        private long millis = -1;
+        private int sequence;
+
+        private ThreadState(int slot) {
+            this.slot = slot;
+        }
+    }
+}
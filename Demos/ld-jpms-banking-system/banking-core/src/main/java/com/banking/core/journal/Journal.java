@@ -0,0 +1,210 @@
+package com.banking.core.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only write-ahead log made of memory-mapped segment files (journal-<seq>.log).
+//
+// Record layout inside a segment:
+//   [int length][int crc32c][length bytes of payload]
+// A length of 0 marks the end of the written data (segments are pre-sized and zero filled).
+// A record whose CRC does not match is a torn write from a crash and also ends the segment.
+//
+// Appending only copies bytes into the mapping. Durability comes from sync(position), which uses
+// group commit: the first thread to arrive forces everything written so far, and every thread
+// whose record is already covered returns without issuing its own fsync.
+public class Journal implements AutoCloseable {
+    public static final int RECORD_HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final Object syncLock = new Object();
+
+    // Guarded by this
+    private long segmentSequence;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    // Global positions: (segment sequence * segment size) + offset, so they only ever grow
+    private long writePosition;
+    private volatile long durablePosition;
+
+    public Journal(Path directory, long firstSegment, int segmentSize, boolean fsync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        openSegment(firstSegment);
+    }
+
+    public synchronized long currentSegment() {
+        return segmentSequence;
+    }
+
+    // Copies one record into the log and returns the position just past it (pass it to sync)
+    public long append(ByteBuffer payload) {
+        int length = payload.remaining();
+        if (length + RECORD_HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + length + " bytes exceeds the segment size");
+        }
+        // Checksum is computed outside the lock; only the copy is serialized
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        int checksum = (int) crc.getValue();
+
+        synchronized (this) {
+            if (segment.remaining() < length + RECORD_HEADER_SIZE) {
+                rollLocked();
+            }
+            segment.putInt(length);
+            segment.putInt(checksum);
+            segment.put(payload);
+            writePosition = segmentSequence * segmentSize + segment.position();
+            return writePosition;
+        }
+    }
+
+    // Position just past the last record appended so far: syncing to it covers every record
+    // appended before this call
+    public synchronized long position() {
+        return writePosition;
+    }
+
+    // Blocks until everything up to position is on disk
+    public void sync(long position) {
+        if (!fsync || durablePosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durablePosition >= position) {
+                // Another thread's fsync already covered this record
+                return;
+            }
+            MappedByteBuffer target;
+            long targetPosition;
+            synchronized (this) {
+                target = segment;
+                targetPosition = writePosition;
+            }
+            // Earlier segments were forced when they were rolled
+            target.force();
+            durablePosition = Math.max(durablePosition, targetPosition);
+        }
+    }
+
+    // Closes the current segment and starts the next one. Used for checkpoints: a snapshot
+    // taken right after a roll is exactly the state at the start of the new segment.
+    public synchronized long roll() {
+        rollLocked();
+        return segmentSequence;
+    }
+
+    private void rollLocked() {
+        segment.force();
+        durablePosition = Math.max(durablePosition, writePosition);
+        closeChannel();
+        openSegment(segmentSequence + 1);
+    }
+
+    private void openSegment(long sequence) {
+        try {
+            channel = FileChannel.open(segmentPath(directory, sequence),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segment.order(ByteOrder.BIG_ENDIAN);
+            segmentSequence = sequence;
+            writePosition = sequence * segmentSize;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open journal segment " + sequence, e);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        segment.force();
+        closeChannel();
+    }
+
+    // Deletes segments older than the given one; called once a snapshot covering them is durable
+    public static void deleteSegmentsBefore(Path directory, long sequence) throws IOException {
+        for (long older : segments(directory)) {
+            if (older < sequence) {
+                Files.deleteIfExists(segmentPath(directory, older));
+            }
+        }
+    }
+
+    // Feeds every intact record of every segment >= fromSegment, in log order, to the consumer.
+    // Returns the last segment sequence seen (or fromSegment - 1 if there are none).
+    public static long replay(Path directory, long fromSegment, Consumer<ByteBuffer> consumer) throws IOException {
+        long last = fromSegment - 1;
+        for (long sequence : segments(directory)) {
+            if (sequence < fromSegment) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(segmentPath(directory, sequence), StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                replaySegment(mapped, consumer);
+            }
+            last = sequence;
+        }
+        return last;
+    }
+
+    private static void replaySegment(ByteBuffer segment, Consumer<ByteBuffer> consumer) {
+        CRC32C crc = new CRC32C();
+        while (segment.remaining() >= RECORD_HEADER_SIZE) {
+            int length = segment.getInt();
+            int checksum = segment.getInt();
+            if (length <= 0 || length > segment.remaining()) {
+                return;
+            }
+            ByteBuffer payload = segment.slice(segment.position(), length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                // Torn tail: the process died in the middle of this append
+                return;
+            }
+            consumer.accept(payload);
+            segment.position(segment.position() + length);
+        }
+    }
+
+    static List<Long> segments(Path directory) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                .forEach(name -> sequences.add(Long.parseLong(
+                    name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private static Path segmentPath(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+}
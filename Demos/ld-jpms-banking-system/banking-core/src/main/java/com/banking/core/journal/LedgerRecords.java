@@ -0,0 +1,156 @@
+package com.banking.core.journal;
+
+import com.banking.api.model.Account;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Binary encoding of ledger operations as journal payloads.
+// Every payload starts with a one byte record type; strings are [short length][UTF-8 bytes]
+// and amounts are [byte scale][byte length][two's complement unscaled value].
+//
+// Replay applies records in log order. The writer must therefore append the record of a mutation
+// before any later mutation of the same account can be applied (JournaledBankingServiceImpl does it
+// under the account's stripe lock): a withdrawal that a concurrent deposit made possible must never
+// precede that deposit in the log, or a crash between the two would replay to a negative balance.
+public final class LedgerRecords {
+    public static final byte CREATE = 1;
+    public static final byte DEPOSIT = 2;
+    public static final byte WITHDRAW = 3;
+    public static final byte TRANSFER = 4;
+    // Several transfers that must be replayed all together or not at all (transferBatch)
+    public static final byte TRANSFER_BATCH = 5;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Encoding buffers are reused per thread, so appending allocates no payload buffer
+    private static final ThreadLocal<ByteBuffer> SCRATCH =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_CAPACITY));
+
+    private ByteBuffer buffer;
+
+    private LedgerRecords(byte type) {
+        buffer = SCRATCH.get();
+        buffer.clear();
+        buffer.put(type);
+    }
+
+    public static ByteBuffer create(String accountId, String customerId, Account.AccountType type) {
+        return new LedgerRecords(CREATE).putString(accountId).putString(customerId)
+            .putByte((byte) type.ordinal()).finish();
+    }
+
+    public static ByteBuffer deposit(String accountId, BigDecimal amount) {
+        return new LedgerRecords(DEPOSIT).putString(accountId).putAmount(amount).finish();
+    }
+
+    public static ByteBuffer withdraw(String accountId, BigDecimal amount) {
+        return new LedgerRecords(WITHDRAW).putString(accountId).putAmount(amount).finish();
+    }
+
+    public static ByteBuffer transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        return new LedgerRecords(TRANSFER).putString(fromAccountId).putString(toAccountId).putAmount(amount).finish();
+    }
+
+    // Batch records are built incrementally: startBatch, addTransfer for each leg, finish
+    public static LedgerRecords startBatch(int count) {
+        LedgerRecords records = new LedgerRecords(TRANSFER_BATCH);
+        records.ensureCapacity(Integer.BYTES);
+        records.buffer.putInt(count);
+        return records;
+    }
+
+    public LedgerRecords addTransfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        return putString(fromAccountId).putString(toAccountId).putAmount(amount);
+    }
+
+    public ByteBuffer finish() {
+        SCRATCH.set(buffer);
+        return buffer.flip();
+    }
+
+    private LedgerRecords putByte(byte value) {
+        ensureCapacity(1);
+        buffer.put(value);
+        return this;
+    }
+
+    // Throws IllegalArgumentException if the amount cannot be encoded. Writers check before they
+    // apply a mutation, so a record that cannot be written never leaves memory ahead of the journal.
+    public static void checkAmount(BigDecimal amount) {
+        // Scale and the length of unscaledValue().toByteArray() are each stored in one byte
+        if (amount.scale() != (byte) amount.scale() || amount.unscaledValue().bitLength() / Byte.SIZE + 1 > 0xFF) {
+            throw new IllegalArgumentException("Amount " + amount + " is out of the journal's range");
+        }
+    }
+
+    private LedgerRecords putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("String of " + bytes.length + " bytes is too long for the journal");
+        }
+        ensureCapacity(Short.BYTES + bytes.length);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+        return this;
+    }
+
+    private LedgerRecords putAmount(BigDecimal amount) {
+        checkAmount(amount);
+        byte[] unscaled = amount.unscaledValue().toByteArray();
+        ensureCapacity(2 + unscaled.length);
+        buffer.put((byte) amount.scale());
+        buffer.put((byte) unscaled.length);
+        buffer.put(unscaled);
+        return this;
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    // Callbacks for replay
+    public interface Handler {
+        void created(String accountId, String customerId, Account.AccountType type);
+        void deposited(String accountId, BigDecimal amount);
+        void withdrawn(String accountId, BigDecimal amount);
+        void transferred(String fromAccountId, String toAccountId, BigDecimal amount);
+    }
+
+    public static void decode(ByteBuffer payload, Handler handler) {
+        byte type = payload.get();
+        switch (type) {
+            case CREATE -> handler.created(getString(payload), getString(payload),
+                Account.AccountType.values()[payload.get()]);
+            case DEPOSIT -> handler.deposited(getString(payload), getAmount(payload));
+            case WITHDRAW -> handler.withdrawn(getString(payload), getAmount(payload));
+            case TRANSFER -> handler.transferred(getString(payload), getString(payload), getAmount(payload));
+            case TRANSFER_BATCH -> {
+                int count = payload.getInt();
+                for (int i = 0; i < count; i++) {
+                    handler.transferred(getString(payload), getString(payload), getAmount(payload));
+                }
+            }
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private static String getString(ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getShort() & 0xFFFF];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal getAmount(ByteBuffer payload) {
+        int scale = payload.get();
+        byte[] unscaled = new byte[payload.get() & 0xFF];
+        payload.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -0,0 +1,152 @@
+package com.banking.core.journal;
+
+import com.banking.api.model.Account;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Compact point-in-time copy of every account (snapshot-<seq>.snap).
+// A snapshot with sequence N holds the state at the start of journal segment N, so recovery is
+// "load the newest valid snapshot, then replay segments >= N".
+//
+// Layout: [int magic][long segment][int count] count x ([id][customer][byte type][amount]) [long crc32c]
+// Files are written to a temporary name and atomically renamed, so a crash mid-write never
+// replaces a good snapshot with a partial one.
+public final class Snapshot {
+    private static final int MAGIC = 0x42534E50; // "BSNP"
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private Snapshot() {
+    }
+
+    public record AccountState(String accountId, String customerId, Account.AccountType type, BigDecimal balance) {
+    }
+
+    public record Loaded(long segment, List<AccountState> accounts) {
+    }
+
+    public static void write(Path directory, long segment, List<AccountState> entries) throws IOException {
+        Path target = directory.resolve(fileName(segment));
+        Path temporary = directory.resolve(fileName(segment) + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                 new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), crc))) {
+            out.writeInt(MAGIC);
+            out.writeLong(segment);
+            out.writeInt(entries.size());
+            for (AccountState entry : entries) {
+                out.writeUTF(entry.accountId());
+                out.writeUTF(entry.customerId());
+                out.writeByte(entry.type().ordinal());
+                byte[] unscaled = entry.balance().unscaledValue().toByteArray();
+                out.writeInt(entry.balance().scale());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+            }
+            out.flush();
+            out.writeLong(crc.getValue());
+            out.flush();
+            // The snapshot must be on disk before the journal segments it replaces are deleted
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Newest snapshot that is complete and passes its checksum
+    public static Optional<Loaded> loadLatest(Path directory) throws IOException {
+        List<Long> sequences = snapshots(directory);
+        for (int i = sequences.size() - 1; i >= 0; i--) {
+            Optional<Loaded> loaded = load(directory.resolve(fileName(sequences.get(i))));
+            if (loaded.isPresent()) {
+                return loaded;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Loaded> load(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+            new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), crc))) {
+            if (in.readInt() != MAGIC) {
+                return Optional.empty();
+            }
+            long segment = in.readLong();
+            int count = in.readInt();
+            List<AccountState> accounts = new ArrayList<>(count);
+            Account.AccountType[] types = Account.AccountType.values();
+            for (int i = 0; i < count; i++) {
+                String accountId = in.readUTF();
+                String customerId = in.readUTF();
+                Account.AccountType type = types[in.readByte()];
+                int scale = in.readInt();
+                byte[] unscaled = new byte[in.readUnsignedByte()];
+                in.readFully(unscaled);
+                accounts.add(new AccountState(accountId, customerId, type, new BigDecimal(new BigInteger(unscaled), scale)));
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                return Optional.empty();
+            }
+            return Optional.of(new Loaded(segment, accounts));
+        } catch (EOFException e) {
+            // Truncated file
+            return Optional.empty();
+        }
+    }
+
+    // Removes snapshots older than the given one (and leftover temporary files)
+    public static void deleteBefore(Path directory, long segment) throws IOException {
+        for (long older : snapshots(directory)) {
+            if (older < segment) {
+                Files.deleteIfExists(directory.resolve(fileName(older)));
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(SUFFIX + ".tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private static List<Long> snapshots(Path directory) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                .forEach(name -> sequences.add(Long.parseLong(
+                    name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+
+    private static String fileName(long segment) {
+        return String.format("%s%016d%s", PREFIX, segment, SUFFIX);
+    }
+}
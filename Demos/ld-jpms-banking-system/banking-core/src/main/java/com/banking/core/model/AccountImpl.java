@@ -1,24 +1,49 @@
 package com.banking.core.model;
 
 import com.banking.api.model.Account;
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.AccountIdGenerator;
+import com.banking.api.service.BalanceSnapshot;
 import java.math.BigDecimal;
-import java.util.UUID;
 
-public class AccountImpl implements Account {
-    private final String accountId;
+public class AccountImpl implements VersionedAccount {
+    private final long accountId;
+    // Text form of accountId, rendered on first use
+    private String accountIdText;
     private final String customerId;
-    private BigDecimal balance;
+    // Volatile so balance reads from other threads always see the latest committed value
+    private volatile BigDecimal balance;
+    // Seqlock around balance for balanceSnapshot(): odd while a (synchronized) write is in progress
+    private volatile long sequence;
     private final AccountType type;
 
-    public AccountImpl(String customerId, AccountType type) {
-        this.accountId = UUID.randomUUID().toString();
+    public AccountImpl(long accountId, String customerId, AccountType type) {
+        this.accountId = accountId;
         this.customerId = customerId;
         this.type = type;
         this.balance = BigDecimal.ZERO;
     }
 
+    // Restores an existing account, e.g. from a snapshot or journal replay
+    public AccountImpl(long accountId, String customerId, AccountType type, BigDecimal balance) {
+        this.accountId = accountId;
+        this.customerId = customerId;
+        this.type = type;
+        this.balance = balance;
+    }
+
     @Override
     public String getAccountId() {
+        // Racy but benign: every thread renders the same immutable String
+        String text = accountIdText;
+        if (text == null) {
+            text = AccountIdGenerator.format(accountId);
+            accountIdText = text;
+        }
+        return text;
+    }
+
+    public long getAccountNumber() {
         return accountId;
     }
 
@@ -38,21 +63,47 @@ public class AccountImpl implements Account {
     }
 
     @Override
-    public void deposit(BigDecimal amount) {
+    public BalanceSnapshot balanceSnapshot() {
+        while (true) {
+            long before = sequence;
+            BigDecimal current = balance;
+            if ((before & 1) == 0 && sequence == before) {
+                return new BalanceSnapshot(getAccountId(), current, before >>> 1);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public synchronized void deposit(BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
+        long current = sequence;
+        sequence = current + 1;
         this.balance = this.balance.add(amount);
+        sequence = current + 2;
     }
 
     @Override
     public void withdraw(BigDecimal amount) throws InsufficientFundsException {
+        if (tryWithdraw(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+            throw InsufficientFundsException.shared();
+        }
+    }
+
+    @Override
+    public synchronized WithdrawResult tryWithdraw(BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
         if (balance.compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds for withdrawal");
+            return WithdrawResult.INSUFFICIENT_FUNDS;
         }
+        long current = sequence;
+        sequence = current + 1;
         this.balance = this.balance.subtract(amount);
+        sequence = current + 2;
+        return WithdrawResult.SUCCESS;
     }
 }
\ No newline at end of file
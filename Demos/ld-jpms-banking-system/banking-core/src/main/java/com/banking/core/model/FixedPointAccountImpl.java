@@ -0,0 +1,176 @@
+package com.banking.core.model;
+
+import com.banking.api.model.Account;
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.AccountIdGenerator;
+import com.banking.api.service.BalanceSnapshot;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+
+// Account whose balance is a scaled long in minor units (cents) instead of a BigDecimal.
+// Deposits and withdrawals are lock-free CAS loops on the long, so they allocate nothing on the
+// balance itself; BigDecimal only appears at the API boundary (amount in, getBalance out).
+// A version word next to the balance (see VersionWord) lets balanceSnapshot() read balance and
+// version together optimistically. Writers never wait for each other, readers never block
+// writers, and getBalance() is a single volatile read.
+public class FixedPointAccountImpl implements VersionedAccount {
+    // Number of decimal places held in the long: 12345 minor units == 123.45
+    public static final int SCALE = 2;
+
+    private static final VarHandle BALANCE;
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BALANCE = lookup.findVarHandle(FixedPointAccountImpl.class, "balance", long.class);
+            VERSION = lookup.findVarHandle(FixedPointAccountImpl.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long accountId;
+    // Text form of accountId, rendered on first use
+    private String accountIdText;
+    private final String customerId;
+    private final AccountType type;
+    // Only ever updated through the BALANCE VarHandle
+    private volatile long balance;
+    // VersionWord: writers in progress and committed mutations
+    private volatile long version;
+
+    public FixedPointAccountImpl(long accountId, String customerId, AccountType type) {
+        this.accountId = accountId;
+        this.customerId = customerId;
+        this.type = type;
+    }
+
+    @Override
+    public String getAccountId() {
+        String text = accountIdText;
+        if (text == null) {
+            text = AccountIdGenerator.format(accountId);
+            accountIdText = text;
+        }
+        return text;
+    }
+
+    public long getAccountNumber() {
+        return accountId;
+    }
+
+    @Override
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return BigDecimal.valueOf(balance, SCALE);
+    }
+
+    public long getBalanceMinorUnits() {
+        return balance;
+    }
+
+    @Override
+    public AccountType getType() {
+        return type;
+    }
+
+    @Override
+    public void deposit(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        depositMinorUnits(toMinorUnits(amount));
+    }
+
+    @Override
+    public void withdraw(BigDecimal amount) throws InsufficientFundsException {
+        if (tryWithdraw(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+            throw InsufficientFundsException.shared();
+        }
+    }
+
+    @Override
+    public WithdrawResult tryWithdraw(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        return tryWithdrawMinorUnits(toMinorUnits(amount));
+    }
+
+    public void depositMinorUnits(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        VERSION.getAndAdd(this, VersionWord.START);
+        long current;
+        long updated;
+        do {
+            current = balance;
+            try {
+                updated = Math.addExact(current, amount);
+            } catch (ArithmeticException e) {
+                VERSION.getAndAdd(this, VersionWord.ABORT);
+                throw e;
+            }
+        } while (!BALANCE.compareAndSet(this, current, updated));
+        VERSION.getAndAdd(this, VersionWord.COMMIT);
+    }
+
+    public void withdrawMinorUnits(long amount) throws InsufficientFundsException {
+        if (tryWithdrawMinorUnits(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+            throw InsufficientFundsException.shared();
+        }
+    }
+
+    public WithdrawResult tryWithdrawMinorUnits(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        // A decline that is already certain touches nothing but the balance read
+        if (balance < amount) {
+            return WithdrawResult.INSUFFICIENT_FUNDS;
+        }
+        VERSION.getAndAdd(this, VersionWord.START);
+        long current;
+        do {
+            current = balance;
+            if (current < amount) {
+                VERSION.getAndAdd(this, VersionWord.ABORT);
+                return WithdrawResult.INSUFFICIENT_FUNDS;
+            }
+        } while (!BALANCE.compareAndSet(this, current, current - amount));
+        VERSION.getAndAdd(this, VersionWord.COMMIT);
+        return WithdrawResult.SUCCESS;
+    }
+
+    @Override
+    public BalanceSnapshot balanceSnapshot() {
+        while (true) {
+            long before = version;
+            if (!VersionWord.hasWriters(before)) {
+                long current = balance;
+                if (version == before) {
+                    return new BalanceSnapshot(getAccountId(), BigDecimal.valueOf(current, SCALE),
+                        VersionWord.version(before));
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Converts a BigDecimal amount to minor units, rejecting sub-cent amounts and values
+    // that do not fit in a long rather than silently rounding them.
+    public static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount + " cannot be represented in minor units", e);
+        }
+    }
+}
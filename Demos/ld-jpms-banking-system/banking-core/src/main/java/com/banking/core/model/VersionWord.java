@@ -0,0 +1,28 @@
+package com.banking.core.model;
+
+// Encoding of the version word kept next to the balance by accounts that many threads update with
+// a CAS on the balance (FixedPointAccountImpl, OffHeapAccount).
+//   low 16 bits  writers currently between their START and their COMMIT / ABORT
+//   the rest     committed mutations: the version handed out in balance snapshots
+// A writer adds START, CASes the balance (retrying only if another writer changed it), then adds
+// COMMIT (version + 1 and writers - 1 in one atomic add), or ABORT if it changed nothing.
+// Writers never wait for each other or for readers. A reader takes the word, then the balance,
+// then the word again: if no writer was active and the word did not move, the pair is consistent.
+public final class VersionWord {
+    public static final long START = 1L;
+    public static final long ABORT = -1L;
+    public static final long COMMIT = (1L << 16) - 1;
+    private static final int WRITER_BITS = 16;
+    private static final long WRITERS_MASK = (1L << WRITER_BITS) - 1;
+
+    private VersionWord() {
+    }
+
+    public static boolean hasWriters(long word) {
+        return (word & WRITERS_MASK) != 0;
+    }
+
+    public static long version(long word) {
+        return word >>> WRITER_BITS;
+    }
+}
@@ -0,0 +1,13 @@
+package com.banking.core.model;
+
+import com.banking.api.model.Account;
+import com.banking.api.service.BalanceSnapshot;
+
+// Account that can hand out a consistent (balance, version) pair without taking a lock.
+// Implementations keep a version next to the balance that advances once per committed mutation
+// and also shows when a write is in progress (a seqlock in AccountImpl and ShardAccount, a
+// VersionWord where many threads CAS the balance). A reader reads the version, the balance and
+// the version again and retries only if a write overlapped; writers never wait for readers.
+public interface VersionedAccount extends Account {
+    BalanceSnapshot balanceSnapshot();
+}
@@ -0,0 +1,131 @@
+package com.banking.core.offheap;
+
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.AccountIdGenerator;
+import com.banking.api.service.BalanceSnapshot;
+import com.banking.core.model.FixedPointAccountImpl;
+import com.banking.core.model.VersionWord;
+import com.banking.core.model.VersionedAccount;
+import java.math.BigDecimal;
+
+// Flyweight Account view over one OffHeapAccountStore record.
+// Holds only the store and the record number; every getter reads the record, and deposits and
+// withdrawals CAS the off-heap balance directly and keep the record's version word up to date.
+// Views are cheap and can be created per call.
+public final class OffHeapAccount implements VersionedAccount {
+    private final OffHeapAccountStore store;
+    private final int record;
+
+    public OffHeapAccount(OffHeapAccountStore store, int record) {
+        this.store = store;
+        this.record = record;
+    }
+
+    public int record() {
+        return record;
+    }
+
+    @Override
+    public String getAccountId() {
+        // Rendered on demand, in the same text form as every other provider; nothing is cached on the heap
+        return AccountIdGenerator.format(store.id(record));
+    }
+
+    @Override
+    public String getCustomerId() {
+        return store.customerId(record);
+    }
+
+    @Override
+    public BigDecimal getBalance() {
+        return BigDecimal.valueOf(store.balance(record), FixedPointAccountImpl.SCALE);
+    }
+
+    @Override
+    public AccountType getType() {
+        return store.type(record);
+    }
+
+    @Override
+    public void deposit(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        depositMinorUnits(FixedPointAccountImpl.toMinorUnits(amount));
+    }
+
+    @Override
+    public void withdraw(BigDecimal amount) throws InsufficientFundsException {
+        if (tryWithdraw(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+            throw InsufficientFundsException.shared();
+        }
+    }
+
+    @Override
+    public WithdrawResult tryWithdraw(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        return tryWithdrawMinorUnits(FixedPointAccountImpl.toMinorUnits(amount));
+    }
+
+    public void depositMinorUnits(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        store.startWrite(record);
+        long current;
+        long updated;
+        do {
+            current = store.balance(record);
+            try {
+                updated = Math.addExact(current, amount);
+            } catch (ArithmeticException e) {
+                store.abortWrite(record);
+                throw e;
+            }
+        } while (!store.compareAndSetBalance(record, current, updated));
+        store.commitWrite(record);
+    }
+
+    public void withdrawMinorUnits(long amount) throws InsufficientFundsException {
+        if (tryWithdrawMinorUnits(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+            throw InsufficientFundsException.shared();
+        }
+    }
+
+    public WithdrawResult tryWithdrawMinorUnits(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        if (store.balance(record) < amount) {
+            return WithdrawResult.INSUFFICIENT_FUNDS;
+        }
+        store.startWrite(record);
+        long current;
+        do {
+            current = store.balance(record);
+            if (current < amount) {
+                store.abortWrite(record);
+                return WithdrawResult.INSUFFICIENT_FUNDS;
+            }
+        } while (!store.compareAndSetBalance(record, current, current - amount));
+        store.commitWrite(record);
+        return WithdrawResult.SUCCESS;
+    }
+
+    @Override
+    public BalanceSnapshot balanceSnapshot() {
+        while (true) {
+            long before = store.version(record);
+            if (!VersionWord.hasWriters(before)) {
+                long current = store.balance(record);
+                if (store.version(record) == before) {
+                    return new BalanceSnapshot(getAccountId(), BigDecimal.valueOf(current, FixedPointAccountImpl.SCALE),
+                        VersionWord.version(before));
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.banking.core.offheap;
+
+import com.banking.api.model.Account;
+import com.banking.core.model.VersionWord;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+// Account records kept outside the Java heap, in direct ByteBuffer slabs.
+//
+// Every account is one fixed 32 byte record:
+//   0  long  account ID (an AccountIdGenerator ID)
+//   8  long  balance in minor units
+//   16 int   customer number << 2 | account type ordinal
+//   20 int   next record of the same customer (-1 ends the chain), used by findAccounts
+//   24 long  version word (see VersionWord): writers in progress and committed mutations.
+//            Writers CAS the balance itself and never wait for each other; readers use the
+//            word to validate optimistic balance reads.
+// Records are addressed by an int record number and never move, so callers can hold on to it.
+//
+// Lookups by account ID go through an open-addressing hash table that is also off-heap
+// (one int per slot: record number + 1, 0 = empty), probed linearly and kept at most half full.
+// The GC sees a few large buffers instead of tens of millions of small objects.
+public final class OffHeapAccountStore {
+    public static final int RECORD_SIZE = 32;
+    private static final int ID = 0;
+    private static final int BALANCE = 8;
+    private static final int CUSTOMER_AND_TYPE = 16;
+    private static final int NEXT_OF_CUSTOMER = 20;
+    private static final int VERSION = 24;
+
+    private static final int SLAB_SHIFT = 20;
+    private static final int RECORDS_PER_SLAB = 1 << SLAB_SHIFT;
+    private static final int SLAB_MASK = RECORDS_PER_SLAB - 1;
+    private static final int INITIAL_INDEX_SLOTS = 1 << 16;
+
+    // Atomic long access to direct buffers, valid on 8 byte aligned offsets
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final Account.AccountType[] TYPES = Account.AccountType.values();
+
+    // Writers (inserts, which may grow slabs or the index) take the write lock;
+    // lookups use an optimistic read and only fall back to the read lock on a concurrent insert.
+    private final StampedLock lock = new StampedLock();
+    private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+    private volatile IndexTable index = new IndexTable(INITIAL_INDEX_SLOTS);
+    private volatile int size;
+
+    // Customers are few compared to accounts, so they stay on-heap as interned numbers
+    private final Map<String, Integer> customerNumbers = new ConcurrentHashMap<>();
+    private String[] customerNames = new String[1024];
+    private int[] customerFirstRecord = new int[1024];
+    private int[] customerLastRecord = new int[1024];
+
+    public int size() {
+        return size;
+    }
+
+    public long offHeapBytes() {
+        return (long) slabs.length * RECORDS_PER_SLAB * RECORD_SIZE + (index.mask + 1L) * Integer.BYTES;
+    }
+
+    // Adds a record and returns its number, or -1 if the ID is already taken
+    public int insert(long id, String customerId, Account.AccountType type) {
+        long stamp = lock.writeLock();
+        try {
+            if (findLocked(id) >= 0) {
+                return -1;
+            }
+            int record = size;
+            if ((record >>> SLAB_SHIFT) == slabs.length) {
+                ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+                grown[slabs.length] = allocate(RECORDS_PER_SLAB * RECORD_SIZE);
+                slabs = grown;
+            }
+            int customer = customerNumber(customerId);
+            ByteBuffer slab = slab(record);
+            int offset = offset(record);
+            slab.putLong(offset + ID, id);
+            slab.putLong(offset + BALANCE, 0L);
+            slab.putInt(offset + CUSTOMER_AND_TYPE, customer << 2 | type.ordinal());
+            slab.putInt(offset + NEXT_OF_CUSTOMER, -1);
+            slab.putLong(offset + VERSION, 0L);
+            linkToCustomer(customer, record);
+
+            if ((record + 1) * 2L > index.mask + 1L) {
+                resizeIndex();
+            }
+            index.put(hash(id), record);
+            size = record + 1;
+            return record;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Record number for the ID, or -1
+    public int find(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int record = findLocked(id);
+            if (lock.validate(stamp)) {
+                return record;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return findLocked(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Record numbers of a customer's accounts, in creation order
+    public int[] recordsOf(String customerId) {
+        Integer customer = customerNumbers.get(customerId);
+        if (customer == null) {
+            return new int[0];
+        }
+        long stamp = lock.readLock();
+        try {
+            int count = 0;
+            for (int record = customerFirstRecord[customer]; record >= 0; record = nextOfCustomer(record)) {
+                count++;
+            }
+            int[] records = new int[count];
+            int i = 0;
+            for (int record = customerFirstRecord[customer]; record >= 0; record = nextOfCustomer(record)) {
+                records[i++] = record;
+            }
+            return records;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long id(int record) {
+        return slab(record).getLong(offset(record) + ID);
+    }
+
+    public long balance(int record) {
+        return (long) LONGS.getVolatile(slab(record), offset(record) + BALANCE);
+    }
+
+    // VersionWord of the record: writers in progress and committed mutations
+    public long version(int record) {
+        return (long) LONGS.getVolatile(slab(record), offset(record) + VERSION);
+    }
+
+    // Writers: startWrite, then compareAndSetBalance until it succeeds, then commitWrite (or
+    // abortWrite if the balance was left alone). See VersionWord.
+    public void startWrite(int record) {
+        LONGS.getAndAdd(slab(record), offset(record) + VERSION, VersionWord.START);
+    }
+
+    public boolean compareAndSetBalance(int record, long expected, long updated) {
+        return LONGS.compareAndSet(slab(record), offset(record) + BALANCE, expected, updated);
+    }
+
+    public void commitWrite(int record) {
+        LONGS.getAndAdd(slab(record), offset(record) + VERSION, VersionWord.COMMIT);
+    }
+
+    public void abortWrite(int record) {
+        LONGS.getAndAdd(slab(record), offset(record) + VERSION, VersionWord.ABORT);
+    }
+
+    public String customerId(int record) {
+        int customer = slab(record).getInt(offset(record) + CUSTOMER_AND_TYPE) >>> 2;
+        long stamp = lock.readLock();
+        try {
+            return customerNames[customer];
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public Account.AccountType type(int record) {
+        return TYPES[slab(record).getInt(offset(record) + CUSTOMER_AND_TYPE) & 0b11];
+    }
+
+    private int findLocked(long id) {
+        IndexTable table = index;
+        for (int slot = hash(id) & table.mask; ; slot = (slot + 1) & table.mask) {
+            int entry = table.slots.getInt(slot * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            int record = entry - 1;
+            if (record < size && id(record) == id) {
+                return record;
+            }
+        }
+    }
+
+    private void resizeIndex() {
+        IndexTable grown = new IndexTable((index.mask + 1) * 2);
+        for (int record = 0; record < size; record++) {
+            grown.put(hash(id(record)), record);
+        }
+        index = grown;
+    }
+
+    private int customerNumber(String customerId) {
+        Integer existing = customerNumbers.get(customerId);
+        if (existing != null) {
+            return existing;
+        }
+        int customer = customerNumbers.size();
+        if (customer == customerNames.length) {
+            customerNames = Arrays.copyOf(customerNames, customer * 2);
+            customerFirstRecord = Arrays.copyOf(customerFirstRecord, customer * 2);
+            customerLastRecord = Arrays.copyOf(customerLastRecord, customer * 2);
+        }
+        customerNames[customer] = customerId;
+        customerFirstRecord[customer] = -1;
+        customerLastRecord[customer] = -1;
+        customerNumbers.put(customerId, customer);
+        return customer;
+    }
+
+    private void linkToCustomer(int customer, int record) {
+        int last = customerLastRecord[customer];
+        if (last < 0) {
+            customerFirstRecord[customer] = record;
+        } else {
+            slab(last).putInt(offset(last) + NEXT_OF_CUSTOMER, record);
+        }
+        customerLastRecord[customer] = record;
+    }
+
+    private int nextOfCustomer(int record) {
+        return slab(record).getInt(offset(record) + NEXT_OF_CUSTOMER);
+    }
+
+    private ByteBuffer slab(int record) {
+        return slabs[record >>> SLAB_SHIFT];
+    }
+
+    private static int offset(int record) {
+        return (record & SLAB_MASK) * RECORD_SIZE;
+    }
+
+    // Generated IDs can be sequential in their low bits, so mix them before masking
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    // Slot buffer and mask are published together so a reader never pairs a new table with an old mask
+    private static final class IndexTable {
+        private final ByteBuffer slots;
+        private final int mask;
+
+        private IndexTable(int slotCount) {
+            this.slots = allocate(slotCount * Integer.BYTES);
+            this.mask = slotCount - 1;
+        }
+
+        private void put(int hash, int record) {
+            int slot = hash & mask;
+            while (slots.getInt(slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots.putInt(slot * Integer.BYTES, record + 1);
+        }
+    }
+
+    // Direct buffers are zero filled; align them so the VarHandle can do atomic 8 byte access
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes + Long.BYTES).alignedSlice(Long.BYTES).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,68 @@
+package com.banking.core.service;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Lock striping for account mutations.
+// Instead of one lock per account (10M lock objects for a 10M-account book) we keep a fixed,
+// power-of-two sized pool of locks and map every account ID onto one of them.
+// Two-account operations always acquire their stripes in ascending stripe order, and the stripe
+// is a pure function of the account ID, so every thread agrees on the order and cannot deadlock.
+final class AccountLockStripes {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    AccountLockStripes(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    // h is a hash of the account's identity: its canonical ID text, or its record number off-heap
+    int stripeOfHash(int h) {
+        // Spread the high bits so IDs with similar prefixes do not pile onto the same stripe
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    void lock(int first, int second) {
+        if (first == second) {
+            locks[first].lock();
+            return;
+        }
+        int low = Math.min(first, second);
+        int high = Math.max(first, second);
+        locks[low].lock();
+        locks[high].lock();
+    }
+
+    void unlock(int first, int second) {
+        if (first == second) {
+            locks[first].unlock();
+            return;
+        }
+        locks[Math.max(first, second)].unlock();
+        locks[Math.min(first, second)].unlock();
+    }
+
+    // Batch operations lock every stripe they touch, still in ascending order
+    void lockAll(BitSet stripes) {
+        for (int i = stripes.nextSetBit(0); i >= 0; i = stripes.nextSetBit(i + 1)) {
+            locks[i].lock();
+        }
+    }
+
+    void unlockAll(BitSet stripes) {
+        for (int i = stripes.previousSetBit(stripes.length() - 1); i >= 0; i = stripes.previousSetBit(i - 1)) {
+            locks[i].unlock();
+        }
+    }
+}
@@ -1,50 +1,353 @@
 package com.banking.core.service;
 
 import com.banking.api.model.Account;
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.AccountIdGenerator;
+import com.banking.api.service.BalanceSnapshot;
 import com.banking.api.service.BankingService;
+import com.banking.api.service.TransferFailedException;
+import com.banking.api.service.TransferInstruction;
+import com.banking.api.service.TransferOutcome;
+import com.banking.core.id.TimeOrderedIdGenerator;
 import com.banking.core.model.AccountImpl;
+import com.banking.core.model.VersionedAccount;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class BankingServiceImpl implements BankingService {
-    private final Map<String, Account> accounts = new HashMap<>();
+    // Stripes per core: enough that two random transfers rarely collide on a stripe
+    private static final int STRIPES_PER_CORE = 64;
+
+    // Concurrent registry: lookups never block and accounts can be created from any thread.
+    // Keyed by the primitive account number rather than its text form, so a lookup hashes one long.
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+    // Secondary index customerId -> accounts, maintained on createAccount so customer lookups
+    // cost O(accounts of that customer) instead of a scan over the whole book.
+    // A customer has few accounts and reads dominate, so each list is copy-on-write.
+    private final Map<String, List<Account>> accountsByCustomer = new ConcurrentHashMap<>();
+    private final AccountLockStripes lockStripes;
+    private final AccountIdGenerator idGenerator;
+    // Outcomes of recent idempotent transfers, keyed by the client's idempotency key
+    private final IdempotencyCache<TransferOutcome> recentTransfers = IdempotencyCache.fromSystemProperties();
+
+    public BankingServiceImpl() {
+        this(Runtime.getRuntime().availableProcessors() * STRIPES_PER_CORE);
+    }
+
+    public BankingServiceImpl(int lockStripes) {
+        this(lockStripes, loadIdGenerator());
+    }
+
+    public BankingServiceImpl(int lockStripes, AccountIdGenerator idGenerator) {
+        this.lockStripes = new AccountLockStripes(lockStripes);
+        this.idGenerator = idGenerator;
+    }
+
+    // A generator plugged in through ServiceLoader wins; otherwise use the built-in time-ordered one
+    static AccountIdGenerator loadIdGenerator() {
+        return ServiceLoader.load(AccountIdGenerator.class)
+            .findFirst()
+            .orElseGet(TimeOrderedIdGenerator::new);
+    }
 
     @Override
     public Account createAccount(String customerId, Account.AccountType type) {
-        Account account = new AccountImpl(customerId, type);
-        accounts.put(account.getAccountId(), account);
+        long accountId;
+        Account account;
+        // A duplicate can only come from a generator reusing a thread slot; draw another ID
+        do {
+            accountId = idGenerator.nextId();
+            account = newAccount(accountId, customerId, type);
+        } while (!registerAccount(accountId, account));
         return account;
     }
 
+    // Adds an account to the registry and the customer index. Also used to restore accounts on recovery.
+    // Returns false (and registers nothing) if the account number is already taken.
+    protected boolean registerAccount(long accountId, Account account) {
+        if (accounts.putIfAbsent(accountId, account) != null) {
+            return false;
+        }
+        accountsByCustomer.computeIfAbsent(account.getCustomerId(), id -> new CopyOnWriteArrayList<>()).add(account);
+        return true;
+    }
+
+    // Live read-only view of every registered account
+    protected Collection<Account> allAccounts() {
+        return Collections.unmodifiableCollection(accounts.values());
+    }
+
+    // Account factory: providers that use a different Account representation override this
+    protected Account newAccount(long accountId, String customerId, Account.AccountType type) {
+        return new AccountImpl(accountId, customerId, type);
+    }
+
     @Override
     public Optional<Account> getAccount(String accountId) {
-        return Optional.ofNullable(accounts.get(accountId));
+        return Optional.ofNullable(lookup(accountId));
+    }
+
+    // The read path for balance inquiries: no stripe lock and no monitor, so it never waits for
+    // (or holds up) a transfer. Every account this registry creates is a VersionedAccount.
+    @Override
+    public BalanceSnapshot getBalanceSnapshot(String accountId) {
+        Account account = lookup(accountId);
+        if (account == null) {
+            throw new IllegalArgumentException("Invalid account ID");
+        }
+        if (account instanceof VersionedAccount versioned) {
+            return versioned.balanceSnapshot();
+        }
+        return new BalanceSnapshot(account.getAccountId(), account.getBalance(), 0L);
+    }
+
+    // Text ID -> registered account, or null for unknown or malformed IDs
+    private Account lookup(String accountId) {
+        try {
+            return accounts.get(AccountIdGenerator.parse(accountId));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Hash of the registered account's canonical ID text (cached by the account), never of the
+    // caller's argument, so differently spelled IDs for the same account share a stripe
+    private int stripeOf(Account account) {
+        return lockStripes.stripeOfHash(account.getAccountId().hashCode());
+    }
+
+    @Override
+    public List<Account> findAccounts(String customerId) {
+        List<Account> customerAccounts = accountsByCustomer.get(customerId);
+        return customerAccounts == null ? List.of() : List.copyOf(customerAccounts);
     }
 
     @Override
     public void transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
-        Account fromAccount = accounts.get(fromAccountId);
-        Account toAccount = accounts.get(toAccountId);
+        Account fromAccount = lookup(fromAccountId);
+        Account toAccount = lookup(toAccountId);
 
         if (fromAccount == null || toAccount == null) {
             throw new IllegalArgumentException("Invalid account ID");
         }
 
+        // Both legs run while holding both account stripes, so no other transfer can observe
+        // or interleave with a half-applied transfer.
+        int fromStripe = stripeOf(fromAccount);
+        int toStripe = stripeOf(toAccount);
+        lockStripes.lock(fromStripe, toStripe);
         try {
-            fromAccount.withdraw(amount);
-            toAccount.deposit(amount);
-        } catch (Account.InsufficientFundsException e) {
-            throw new RuntimeException("Transfer failed: " + e.getMessage());
+            if (fromAccount.tryWithdraw(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+                throw TransferFailedException.of(TransferOutcome.Status.INSUFFICIENT_FUNDS);
+            }
+            try {
+                toAccount.deposit(amount);
+            } catch (RuntimeException e) {
+                // The credit can still fail after the debit (a fixed-point balance would overflow):
+                // put the money back so the failed transfer leaves both accounts untouched
+                fromAccount.deposit(amount);
+                throw e;
+            }
+            transferApplied(fromAccount, toAccount, amount);
+        } finally {
+            lockStripes.unlock(fromStripe, toStripe);
+        }
+    }
+
+    // Hooks for providers that record mutations (the journal). They run while the stripes of every
+    // account involved are still held, so the record of a mutation is written before any later
+    // mutation of the same account can be applied: records reach the log in the order they happened.
+    protected void transferApplied(Account fromAccount, Account toAccount, BigDecimal amount) {
+    }
+
+    // statuses[i] is the outcome of instructions.get(i); the accounts of COMPLETED ones are resolved
+    protected void batchApplied(List<TransferInstruction> instructions, Account[] fromAccounts, Account[] toAccounts,
+                                TransferOutcome.Status[] statuses) {
+    }
+
+    // Extra check on a positive batch amount, made before anything is locked or applied: a provider
+    // that cannot apply or record some amounts rejects them here as INVALID_AMOUNT
+    protected boolean isValidAmount(BigDecimal amount) {
+        return true;
+    }
+
+    // Holds the stripe of one registered account: lets a provider that mutates an account directly
+    // (outside transfer / transferBatch) order that mutation with the transfers touching it
+    protected final void lockAccount(Account account) {
+        int stripe = stripeOf(account);
+        lockStripes.lock(stripe, stripe);
+    }
+
+    protected final void unlockAccount(Account account) {
+        int stripe = stripeOf(account);
+        lockStripes.unlock(stripe, stripe);
+    }
+
+    @Override
+    public TransferOutcome transfer(String idempotencyKey, TransferInstruction instruction) {
+        // Executed as a one-instruction batch, which reports failures as a status instead of
+        // throwing and goes through whatever transferBatch a subclass provides (journaling, shards)
+        if (idempotencyKey == null) {
+            return transferBatch(List.of(instruction)).get(0);
+        }
+        TransferOutcome outcome = recentTransfers.computeIfAbsent(idempotencyKey,
+            () -> transferBatch(List.of(instruction)).get(0));
+        return checkSameTransfer(idempotencyKey, outcome, instruction);
+    }
+
+    // A key reused for a different transfer is a client bug; answering with the other transfer's
+    // outcome would hide it
+    static TransferOutcome checkSameTransfer(String idempotencyKey, TransferOutcome outcome, TransferInstruction instruction) {
+        TransferInstruction original = outcome.instruction();
+        boolean same = original.fromAccountId().equals(instruction.fromAccountId())
+            && original.toAccountId().equals(instruction.toAccountId())
+            && (original.amount() == null ? instruction.amount() == null
+                : instruction.amount() != null && original.amount().compareTo(instruction.amount()) == 0);
+        if (!same) {
+            throw new IllegalArgumentException("Idempotency key " + idempotencyKey + " was already used for a different transfer");
+        }
+        return outcome;
+    }
+
+    @Override
+    public List<TransferOutcome> transferBatch(List<TransferInstruction> instructions) {
+        int size = instructions.size();
+        TransferOutcome.Status[] rejected = new TransferOutcome.Status[size];
+        Account[] fromAccounts = new Account[size];
+        Account[] toAccounts = new Account[size];
+        BitSet stripes = new BitSet();
+
+        // Resolve every account once and reject malformed instructions up front
+        for (int i = 0; i < size; i++) {
+            TransferInstruction instruction = instructions.get(i);
+            BigDecimal amount = instruction.amount();
+            if (amount == null || amount.signum() <= 0 || !isValidAmount(amount)) {
+                rejected[i] = TransferOutcome.Status.INVALID_AMOUNT;
+                continue;
+            }
+            fromAccounts[i] = lookup(instruction.fromAccountId());
+            toAccounts[i] = lookup(instruction.toAccountId());
+            if (fromAccounts[i] == null || toAccounts[i] == null) {
+                rejected[i] = TransferOutcome.Status.INVALID_ACCOUNT;
+                continue;
+            }
+            stripes.set(stripeOf(fromAccounts[i]));
+            stripes.set(stripeOf(toAccounts[i]));
+        }
+
+        TransferOutcome.Status[] statuses;
+        lockStripes.lockAll(stripes);
+        try {
+            // Net the batch, then apply one mutation per account whose position actually moved.
+            // Accounts can still be mutated directly through the Account interface without the
+            // stripe locks; if that drains an account between netting and applying, net again.
+            do {
+                statuses = rejected.clone();
+            } while (!applyNetPositions(netPositions(instructions, fromAccounts, toAccounts, statuses)));
+            batchApplied(instructions, fromAccounts, toAccounts, statuses);
+        } finally {
+            lockStripes.unlockAll(stripes);
+        }
+
+        List<TransferOutcome> outcomes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            outcomes.add(new TransferOutcome(instructions.get(i), statuses[i]));
+        }
+        return outcomes;
+    }
+
+    // Walks the instructions in order against projected balances. Each instruction is accepted
+    // only if its debit account can cover it given everything accepted before it.
+    private Collection<NetPosition> netPositions(List<TransferInstruction> instructions, Account[] fromAccounts,
+                                                 Account[] toAccounts, TransferOutcome.Status[] statuses) {
+        Map<Account, NetPosition> positions = new IdentityHashMap<>();
+        for (int i = 0; i < statuses.length; i++) {
+            if (statuses[i] != null) {
+                continue;
+            }
+            BigDecimal amount = instructions.get(i).amount();
+            NetPosition from = positions.computeIfAbsent(fromAccounts[i], NetPosition::new);
+            NetPosition to = positions.computeIfAbsent(toAccounts[i], NetPosition::new);
+            if (from.projectedBalance().compareTo(amount) < 0) {
+                statuses[i] = TransferOutcome.Status.INSUFFICIENT_FUNDS;
+                continue;
+            }
+            from.delta = from.delta.subtract(amount);
+            to.delta = to.delta.add(amount);
+            statuses[i] = TransferOutcome.Status.COMPLETED;
+        }
+        return positions.values();
+    }
+
+    // Debits first, so a failed debit can be rolled back before any credit has been applied.
+    // A debit or credit that throws (an amount the account cannot represent, a fixed-point balance
+    // that would overflow) rolls back every credit and debit applied so far and fails the whole
+    // batch with that exception: the batch is all or nothing.
+    private boolean applyNetPositions(Collection<NetPosition> positions) {
+        List<NetPosition> debited = new ArrayList<>();
+        for (NetPosition position : positions) {
+            if (position.delta.signum() < 0) {
+                WithdrawResult result;
+                try {
+                    result = position.account.tryWithdraw(position.delta.negate());
+                } catch (RuntimeException e) {
+                    rollBack(debited, List.of());
+                    throw e;
+                }
+                if (result == WithdrawResult.INSUFFICIENT_FUNDS) {
+                    rollBack(debited, List.of());
+                    return false;
+                }
+                debited.add(position);
+            }
+        }
+        List<NetPosition> credited = new ArrayList<>();
+        for (NetPosition position : positions) {
+            if (position.delta.signum() > 0) {
+                try {
+                    position.account.deposit(position.delta);
+                } catch (RuntimeException e) {
+                    rollBack(debited, credited);
+                    throw e;
+                }
+                credited.add(position);
+            }
+        }
+        return true;
+    }
+
+    private static void rollBack(List<NetPosition> debited, List<NetPosition> credited) {
+        for (NetPosition position : credited) {
+            position.account.tryWithdraw(position.delta);
+        }
+        for (NetPosition position : debited) {
+            position.account.deposit(position.delta.negate());
+        }
+    }
+
+    private static final class NetPosition {
+        private final Account account;
+        private final BigDecimal openingBalance;
+        private BigDecimal delta = BigDecimal.ZERO;
+
+        private NetPosition(Account account) {
+            this.account = account;
+            this.openingBalance = account.getBalance();
+        }
+
+        private BigDecimal projectedBalance() {
+            return openingBalance.add(delta);
         }
     }
 
     @Override
     public void listAccounts(String customerId) {
-        accounts.values().stream()
-            .filter(account -> account.getCustomerId().equals(customerId))
+        findAccounts(customerId)
             .forEach(account -> System.out.printf("Account ID: %s, Type: %s, Balance: $%.2f%n",
                 account.getAccountId(),
                 account.getType(),
                 account.getBalance()));
     }
-}
\ No newline at end of file
+}
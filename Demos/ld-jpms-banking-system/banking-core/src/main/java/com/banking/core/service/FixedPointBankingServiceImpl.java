@@ -0,0 +1,35 @@
+package com.banking.core.service;
+
+import com.banking.api.model.Account;
+import com.banking.core.model.FixedPointAccountImpl;
+import java.math.BigDecimal;
+
+// BankingService provider backed by FixedPointAccountImpl (long minor-unit balances).
+// Same registry and transfer engine as BankingServiceImpl; only the account representation differs.
+public class FixedPointBankingServiceImpl extends BankingServiceImpl {
+
+    public FixedPointBankingServiceImpl() {
+        super();
+    }
+
+    public FixedPointBankingServiceImpl(int lockStripes) {
+        super(lockStripes);
+    }
+
+    @Override
+    protected Account newAccount(long accountId, String customerId, Account.AccountType type) {
+        return new FixedPointAccountImpl(accountId, customerId, type);
+    }
+
+    // Amounts with more decimals than the minor unit (or out of the long range) are rejected up
+    // front as INVALID_AMOUNT, like the sharded and off-heap providers do, instead of failing mid-batch
+    @Override
+    protected boolean isValidAmount(BigDecimal amount) {
+        try {
+            FixedPointAccountImpl.toMinorUnits(amount);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
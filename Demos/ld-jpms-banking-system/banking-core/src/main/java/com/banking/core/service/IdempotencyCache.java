@@ -0,0 +1,282 @@
+package com.banking.core.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Bounded, time-windowed memory of recent idempotency keys and the results they produced.
+//
+// Keys are spread over a fixed number of segments, each with its own lock, so unrelated keys
+// rarely contend. A segment is an open-addressing table (linear probing, at most half full,
+// backward-shift deletion, no tombstones) plus a doubly linked list of its entries in
+// least-recently-used order. A key is remembered for the TTL after it was last used, so the
+// LRU order is also expiry order: expired keys are always at the head of the list, and when a
+// segment is full its least recently used key is evicted.
+// Lookup, insert and eviction are all O(1), and memory is capped by maxKeys and MAX_KEY_LENGTH.
+// Tables start small and double as keys arrive, so an idle service holds almost nothing.
+//
+// The first caller for a key runs the action; concurrent callers with the same key wait for
+// that result instead of running it again.
+final class IdempotencyCache<V> {
+    static final int MAX_KEY_LENGTH = 128;
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_TABLE_SIZE = 16;
+
+    private final Segment<V>[] segments;
+    private final long ttlNanos;
+
+    IdempotencyCache(int maxKeys, long ttl, TimeUnit unit) {
+        if (maxKeys < 1 << SEGMENT_BITS) {
+            throw new IllegalArgumentException("maxKeys must be at least " + (1 << SEGMENT_BITS));
+        }
+        this.ttlNanos = unit.toNanos(ttl);
+        this.segments = newSegments(1 << SEGMENT_BITS);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<>(maxKeys >>> SEGMENT_BITS);
+        }
+    }
+
+    // Configuration (system properties):
+    //   banking.idempotency.maxKeys     keys remembered at most (default 1,000,000)
+    //   banking.idempotency.ttlSeconds  how long a key is remembered after its last use (default 86,400 = one day)
+    static <V> IdempotencyCache<V> fromSystemProperties() {
+        return new IdempotencyCache<>(Integer.getInteger("banking.idempotency.maxKeys", 1_000_000),
+            Long.getLong("banking.idempotency.ttlSeconds", 86_400L), TimeUnit.SECONDS);
+    }
+
+    // Result recorded for the key if it is still remembered, otherwise runs action and records its result.
+    // If action throws, nothing is recorded and the key can be retried.
+    V computeIfAbsent(String key, Supplier<V> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        int h = key.hashCode() * 0x9E3779B9;
+        Segment<V> segment = segments[h >>> (Integer.SIZE - SEGMENT_BITS)];
+        Entry<V> entry;
+        boolean owner;
+        segment.lock.lock();
+        try {
+            long now = System.nanoTime();
+            segment.expire(now);
+            entry = segment.find(key, h);
+            owner = entry == null;
+            if (owner) {
+                entry = new Entry<>(key, h);
+                segment.insert(entry);
+            } else {
+                segment.unlink(entry);
+            }
+            // Most recently used: to the tail, remembered for another TTL
+            entry.expiresAt = now + ttlNanos;
+            segment.append(entry);
+        } finally {
+            segment.lock.unlock();
+        }
+        if (!owner) {
+            return entry.await();
+        }
+        try {
+            V value = action.get();
+            entry.complete(value);
+            return value;
+        } catch (Throwable t) {
+            // Whatever the action threw, an Error included: forget the key so it can be retried,
+            // and release the callers waiting on it
+            segment.lock.lock();
+            try {
+                segment.remove(entry);
+            } finally {
+                segment.lock.unlock();
+            }
+            entry.fail(t);
+            throw t;
+        }
+    }
+
+    // Generic arrays cannot be created directly; the casts are safe because these arrays never
+    // leave the cache
+    @SuppressWarnings("unchecked")
+    private static <V> Segment<V>[] newSegments(int length) {
+        return (Segment<V>[]) new Segment<?>[length];
+    }
+
+    private static final class Segment<V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int capacity;
+        // Guarded by lock
+        private Entry<V>[] table;
+        private int mask;
+        private int size;
+        // Least recently used first
+        private Entry<V> head;
+        private Entry<V> tail;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            allocateTable(INITIAL_TABLE_SIZE);
+        }
+
+        private void allocateTable(int tableSize) {
+            table = newEntries(tableSize);
+            mask = tableSize - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <V> Entry<V>[] newEntries(int length) {
+            return (Entry<V>[]) new Entry<?>[length];
+        }
+
+        private Entry<V> find(String key, int h) {
+            for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+                Entry<V> entry = table[slot];
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.hash == h && entry.key.equals(key)) {
+                    return entry;
+                }
+            }
+        }
+
+        // Adds to the table only; the caller links the entry into the LRU list
+        private void insert(Entry<V> entry) {
+            if (size == capacity) {
+                remove(head);
+            }
+            if ((size + 1) * 2 > table.length) {
+                grow();
+            }
+            place(entry);
+            size++;
+        }
+
+        private void place(Entry<V> entry) {
+            int slot = entry.hash & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry;
+        }
+
+        private void grow() {
+            Entry<V>[] old = table;
+            allocateTable(old.length * 2);
+            for (Entry<V> entry : old) {
+                if (entry != null) {
+                    place(entry);
+                }
+            }
+        }
+
+        private void expire(long now) {
+            while (head != null && now - head.expiresAt >= 0) {
+                remove(head);
+            }
+        }
+
+        private void append(Entry<V> entry) {
+            entry.previous = tail;
+            entry.next = null;
+            if (tail == null) {
+                head = entry;
+            } else {
+                tail.next = entry;
+            }
+            tail = entry;
+        }
+
+        private void unlink(Entry<V> entry) {
+            if (entry.previous == null) {
+                head = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+            if (entry.next == null) {
+                tail = entry.previous;
+            } else {
+                entry.next.previous = entry.previous;
+            }
+            entry.previous = null;
+            entry.next = null;
+        }
+
+        // From the table and the LRU list; nothing happens if the entry is already gone
+        private void remove(Entry<V> entry) {
+            int slot = entry.hash & mask;
+            while (table[slot] != entry) {
+                if (table[slot] == null) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            unlink(entry);
+            size--;
+            // Backward-shift deletion: pull later entries of the probe run into the hole
+            int hole = slot;
+            table[hole] = null;
+            for (int next = (hole + 1) & mask; table[next] != null; next = (next + 1) & mask) {
+                int home = table[next].hash & mask;
+                boolean staysPut = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                if (!staysPut) {
+                    table[hole] = table[next];
+                    table[next] = null;
+                    hole = next;
+                }
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final String key;
+        private final int hash;
+        // Guarded by the segment lock
+        private long expiresAt;
+        private Entry<V> previous;
+        private Entry<V> next;
+        // Guarded by this
+        private boolean done;
+        private V value;
+        private Throwable failure;
+
+        private Entry(String key, int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        private synchronized void complete(V result) {
+            value = result;
+            done = true;
+            notifyAll();
+        }
+
+        private synchronized void fail(Throwable t) {
+            failure = t;
+            done = true;
+            notifyAll();
+        }
+
+        private synchronized V await() {
+            boolean interrupted = false;
+            while (!done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure instanceof RuntimeException e) {
+                throw e;
+            }
+            if (failure instanceof Error e) {
+                throw e;
+            }
+            if (failure != null) {
+                throw new IllegalStateException("The first attempt with this idempotency key failed", failure);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.banking.core.service;
+
+import com.banking.api.model.Account;
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.AccountIdGenerator;
+import com.banking.api.service.TransferInstruction;
+import com.banking.api.service.TransferOutcome;
+import com.banking.core.journal.Journal;
+import com.banking.core.journal.LedgerRecords;
+import com.banking.core.journal.Snapshot;
+import com.banking.core.model.AccountImpl;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Durable BankingService provider: the in-memory engine of BankingServiceImpl plus a write-ahead journal.
+//
+// Every createAccount / deposit / withdraw / transfer / transferBatch is appended to a memory-mapped,
+// CRC-checked journal and made durable with group commit before the call returns. The record is
+// appended while the stripes of the accounts it touches are still held, so the journal holds each
+// account's mutations in the order they were applied and replay reproduces every intermediate
+// balance; the fsync (the slow part) happens after the locks are released. Every
+// snapshotInterval operations a checkpoint rolls the journal, writes a compact snapshot of all
+// accounts and deletes the segments it covers, which bounds replay time.
+// Records are encoded, and so validated, before the mutation is applied. If the journal still
+// fails to take a record (or to force it) after memory has changed, the service stops accepting
+// mutations: memory is then ahead of the journal, and a restart recovers the journaled state.
+// Constructing the service recovers it: newest valid snapshot + replay of the journal tail.
+// Idempotent transfers are journaled like any batch, but their keys are remembered in memory only
+// and do not survive a restart.
+//
+// Configuration (system properties, since ServiceLoader needs a no-arg constructor):
+//   banking.journal.dir              directory for journal segments and snapshots (default banking-journal)
+//   banking.journal.fsync            force the journal before acknowledging (default true)
+//   banking.journal.segmentSize      bytes per journal segment (default 64 MB)
+//   banking.journal.snapshotInterval operations between checkpoints (default 1,000,000)
+public class JournaledBankingServiceImpl extends BankingServiceImpl implements AutoCloseable {
+    private static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    private static final long DEFAULT_SNAPSHOT_INTERVAL = 1_000_000L;
+
+    private final Path directory;
+    private final long snapshotInterval;
+    private final Journal journal;
+    // Mutations hold the read side (they run concurrently); a checkpoint takes the write side
+    // for just long enough to roll the journal and copy the balances.
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final AtomicLong operationsSinceCheckpoint = new AtomicLong();
+    private final AtomicBoolean checkpointScheduled = new AtomicBoolean();
+    // Set once a mutation was applied in memory but its record could not be made durable
+    private volatile boolean failed;
+    private final ExecutorService checkpointExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "banking-journal-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JournaledBankingServiceImpl() {
+        this(Path.of(System.getProperty("banking.journal.dir", "banking-journal")),
+            Boolean.parseBoolean(System.getProperty("banking.journal.fsync", "true")),
+            Integer.getInteger("banking.journal.segmentSize", DEFAULT_SEGMENT_SIZE),
+            Long.getLong("banking.journal.snapshotInterval", DEFAULT_SNAPSHOT_INTERVAL));
+    }
+
+    public JournaledBankingServiceImpl(Path directory, boolean fsync, int segmentSize, long snapshotInterval) {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        try {
+            Files.createDirectories(directory);
+            long nextSegment = recover();
+            this.journal = new Journal(directory, nextSegment, segmentSize, fsync);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover banking journal in " + directory, e);
+        }
+    }
+
+    // Rebuilds the registry from the newest snapshot plus every journal record after it.
+    // Returns the segment sequence new records go to: always a fresh segment, so a torn tail
+    // left by a crash is never appended to.
+    // Accounts are matched by account number, not ID text: IDs parse case-insensitively, and
+    // journals written before records carried the canonical ID may hold the caller's spelling.
+    private long recover() throws IOException {
+        long start = System.nanoTime();
+        Map<Long, RecoveredAccount> recovered = new LinkedHashMap<>();
+        Optional<Snapshot.Loaded> snapshot = Snapshot.loadLatest(directory);
+        long fromSegment = snapshot.map(Snapshot.Loaded::segment).orElse(0L);
+        snapshot.ifPresent(loaded -> loaded.accounts().forEach(state -> recovered.put(
+            AccountIdGenerator.parse(state.accountId()),
+            new RecoveredAccount(state.customerId(), state.type(), state.balance()))));
+
+        AtomicLong records = new AtomicLong();
+        LedgerRecords.Handler replay = new LedgerRecords.Handler() {
+            @Override
+            public void created(String accountId, String customerId, Account.AccountType type) {
+                recovered.put(AccountIdGenerator.parse(accountId),
+                    new RecoveredAccount(customerId, type, BigDecimal.ZERO));
+            }
+
+            @Override
+            public void deposited(String accountId, BigDecimal amount) {
+                find(accountId).add(amount);
+            }
+
+            @Override
+            public void withdrawn(String accountId, BigDecimal amount) {
+                find(accountId).add(amount.negate());
+            }
+
+            @Override
+            public void transferred(String fromAccountId, String toAccountId, BigDecimal amount) {
+                find(fromAccountId).add(amount.negate());
+                find(toAccountId).add(amount);
+            }
+
+            private RecoveredAccount find(String accountId) {
+                RecoveredAccount account = recovered.get(AccountIdGenerator.parse(accountId));
+                if (account == null) {
+                    throw new IllegalStateException("Journal references unknown account " + accountId);
+                }
+                return account;
+            }
+        };
+        long lastSegment = Journal.replay(directory, fromSegment, payload -> {
+            LedgerRecords.decode(payload, replay);
+            records.incrementAndGet();
+        });
+
+        // Straight into the registry: these accounts are already in the journal
+        recovered.forEach((accountId, account) -> super.registerAccount(accountId,
+            new AccountImpl(accountId, account.customerId, account.type, account.balance)));
+        if (!recovered.isEmpty()) {
+            System.out.printf("Recovered %d accounts (snapshot %d + %d journal records) in %d ms%n",
+                recovered.size(), fromSegment, records.get(), (System.nanoTime() - start) / 1_000_000);
+        }
+        return Math.max(lastSegment + 1, fromSegment);
+    }
+
+    @Override
+    public Account createAccount(String customerId, Account.AccountType type) {
+        checkWritable();
+        Account account;
+        Lock lock = checkpointLock.readLock();
+        lock.lock();
+        try {
+            // Appends its record from registerAccount, under the new account's stripe
+            account = super.createAccount(customerId, type);
+        } finally {
+            lock.unlock();
+        }
+        commit(journal.position());
+        return new JournaledAccount(account);
+    }
+
+    // The account becomes visible in the registry while its stripe is held, and the stripe is only
+    // released once the CREATE record is in the log: a deposit or transfer by another thread that
+    // finds the account waits for the stripe, so its record always follows the CREATE.
+    @Override
+    protected boolean registerAccount(long accountId, Account account) {
+        ByteBuffer record = LedgerRecords.create(account.getAccountId(), account.getCustomerId(), account.getType());
+        lockAccount(account);
+        try {
+            if (!super.registerAccount(accountId, account)) {
+                return false;
+            }
+            append(record);
+            return true;
+        } finally {
+            unlockAccount(account);
+        }
+    }
+
+    @Override
+    public Optional<Account> getAccount(String accountId) {
+        return super.getAccount(accountId).map(JournaledAccount::new);
+    }
+
+    @Override
+    public List<Account> findAccounts(String customerId) {
+        List<Account> accounts = new ArrayList<>();
+        for (Account account : super.findAccounts(customerId)) {
+            accounts.add(new JournaledAccount(account));
+        }
+        return accounts;
+    }
+
+    @Override
+    public void transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        checkWritable();
+        if (amount != null) {
+            // The record is written after both legs are applied; make sure it can be
+            LedgerRecords.checkAmount(amount);
+        }
+        Lock lock = checkpointLock.readLock();
+        lock.lock();
+        try {
+            // Appends its record from transferApplied, under the stripe locks
+            super.transfer(fromAccountId, toAccountId, amount);
+        } finally {
+            lock.unlock();
+        }
+        commit(journal.position());
+    }
+
+    @Override
+    protected void transferApplied(Account fromAccount, Account toAccount, BigDecimal amount) {
+        append(LedgerRecords.transfer(fromAccount.getAccountId(), toAccount.getAccountId(), amount));
+    }
+
+    @Override
+    public List<TransferOutcome> transferBatch(List<TransferInstruction> instructions) {
+        checkWritable();
+        List<TransferOutcome> outcomes;
+        Lock lock = checkpointLock.readLock();
+        lock.lock();
+        try {
+            // Appends its record from batchApplied, under the stripe locks
+            outcomes = super.transferBatch(instructions);
+        } finally {
+            lock.unlock();
+        }
+        if (outcomes.stream().anyMatch(TransferOutcome::isCompleted)) {
+            commit(journal.position());
+        }
+        return outcomes;
+    }
+
+    @Override
+    protected void batchApplied(List<TransferInstruction> instructions, Account[] fromAccounts, Account[] toAccounts,
+                                TransferOutcome.Status[] statuses) {
+        int completed = 0;
+        for (TransferOutcome.Status status : statuses) {
+            if (status == TransferOutcome.Status.COMPLETED) {
+                completed++;
+            }
+        }
+        if (completed == 0) {
+            return;
+        }
+        // One record for the whole batch, so replay applies all of it or none of it
+        LedgerRecords batch = LedgerRecords.startBatch(completed);
+        for (int i = 0; i < statuses.length; i++) {
+            if (statuses[i] == TransferOutcome.Status.COMPLETED) {
+                batch.addTransfer(fromAccounts[i].getAccountId(), toAccounts[i].getAccountId(),
+                    instructions.get(i).amount());
+            }
+        }
+        append(batch.finish());
+    }
+
+    // Amounts the journal cannot encode are rejected before the batch is applied
+    @Override
+    protected boolean isValidAmount(BigDecimal amount) {
+        try {
+            LedgerRecords.checkAmount(amount);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Forces a checkpoint now: roll the journal, snapshot every account, drop covered segments
+    public synchronized void checkpoint() throws IOException {
+        long segment;
+        List<Snapshot.AccountState> state = new ArrayList<>();
+        Lock lock = checkpointLock.writeLock();
+        lock.lock();
+        try {
+            segment = journal.roll();
+            for (Account account : allAccounts()) {
+                state.add(new Snapshot.AccountState(account.getAccountId(), account.getCustomerId(),
+                    account.getType(), account.getBalance()));
+            }
+            operationsSinceCheckpoint.set(0);
+        } finally {
+            lock.unlock();
+        }
+        // Writing the file happens outside the lock; mutations continue into the new segment
+        Snapshot.write(directory, segment, state);
+        Journal.deleteSegmentsBefore(directory, segment);
+        Snapshot.deleteBefore(directory, segment);
+    }
+
+    // Waits for a checkpoint in progress (background or explicit) before closing the journal it rolls
+    @Override
+    public void close() {
+        checkpointExecutor.shutdown();
+        try {
+            while (!checkpointExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // A snapshot of a large book can take a while; keep waiting
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            journal.close();
+        }
+    }
+
+    private void checkWritable() {
+        if (failed) {
+            throw new IllegalStateException("Banking journal failed; restart the service to recover from it");
+        }
+    }
+
+    // Called once the mutation is applied: if the record cannot be written, memory has moved
+    // ahead of the journal and the service stops accepting mutations
+    private long append(ByteBuffer record) {
+        try {
+            return journal.append(record);
+        } catch (RuntimeException | Error e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    // Waits for durability (group commit) and triggers a background checkpoint when one is due
+    private void commit(long position) {
+        try {
+            journal.sync(position);
+        } catch (RuntimeException | Error e) {
+            failed = true;
+            throw e;
+        }
+        if (operationsSinceCheckpoint.incrementAndGet() >= snapshotInterval
+            && checkpointScheduled.compareAndSet(false, true)) {
+            checkpointExecutor.execute(() -> {
+                try {
+                    checkpoint();
+                } catch (IOException e) {
+                    System.err.println("Journal checkpoint failed: " + e.getMessage());
+                } finally {
+                    checkpointScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private static final class RecoveredAccount {
+        private final String customerId;
+        private final Account.AccountType type;
+        private BigDecimal balance;
+
+        private RecoveredAccount(String customerId, Account.AccountType type, BigDecimal balance) {
+            this.customerId = customerId;
+            this.type = type;
+            this.balance = balance;
+        }
+
+        private void add(BigDecimal amount) {
+            balance = balance.add(amount);
+        }
+    }
+
+    // Handed out to callers so that direct Account.deposit/withdraw calls are journaled too, under
+    // the account's stripe like a transfer leg. The registry itself holds the plain accounts, so
+    // transfers never journal their legs twice.
+    private final class JournaledAccount implements Account {
+        private final Account delegate;
+
+        private JournaledAccount(Account delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getAccountId() {
+            return delegate.getAccountId();
+        }
+
+        @Override
+        public String getCustomerId() {
+            return delegate.getCustomerId();
+        }
+
+        @Override
+        public BigDecimal getBalance() {
+            return delegate.getBalance();
+        }
+
+        @Override
+        public AccountType getType() {
+            return delegate.getType();
+        }
+
+        @Override
+        public void deposit(BigDecimal amount) {
+            checkWritable();
+            ByteBuffer record = LedgerRecords.deposit(delegate.getAccountId(), amount);
+            long position;
+            Lock lock = checkpointLock.readLock();
+            lock.lock();
+            lockAccount(delegate);
+            try {
+                delegate.deposit(amount);
+                position = append(record);
+            } finally {
+                unlockAccount(delegate);
+                lock.unlock();
+            }
+            commit(position);
+        }
+
+        @Override
+        public void withdraw(BigDecimal amount) throws InsufficientFundsException {
+            if (tryWithdraw(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+                throw InsufficientFundsException.shared();
+            }
+        }
+
+        // Only successful withdrawals are journaled; a decline changed nothing
+        @Override
+        public WithdrawResult tryWithdraw(BigDecimal amount) {
+            checkWritable();
+            ByteBuffer record = LedgerRecords.withdraw(delegate.getAccountId(), amount);
+            long position;
+            Lock lock = checkpointLock.readLock();
+            lock.lock();
+            lockAccount(delegate);
+            try {
+                if (delegate.tryWithdraw(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+                    return WithdrawResult.INSUFFICIENT_FUNDS;
+                }
+                position = append(record);
+            } finally {
+                unlockAccount(delegate);
+                lock.unlock();
+            }
+            commit(position);
+            return WithdrawResult.SUCCESS;
+        }
+    }
+}
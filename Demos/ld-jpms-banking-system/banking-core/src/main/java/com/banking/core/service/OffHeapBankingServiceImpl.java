@@ -0,0 +1,171 @@
+package com.banking.core.service;
+
+import com.banking.api.model.Account;
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.AccountIdGenerator;
+import com.banking.api.service.BalanceSnapshot;
+import com.banking.api.service.BankingService;
+import com.banking.api.service.TransferFailedException;
+import com.banking.api.service.TransferInstruction;
+import com.banking.api.service.TransferOutcome;
+import com.banking.core.model.FixedPointAccountImpl;
+import com.banking.core.offheap.OffHeapAccount;
+import com.banking.core.offheap.OffHeapAccountStore;
+import java.math.BigDecimal;
+import java.util.*;
+
+// BankingService provider for very large books: account records live off-heap in an
+// OffHeapAccountStore (32 bytes per account, off-heap open-addressing index)
+// and callers get flyweight OffHeapAccount views. IDs come from the same AccountIdGenerator
+// as BankingServiceImpl's and have the same text form. Transfers use the same lock striping as
+// BankingServiceImpl, keyed by the record number.
+public class OffHeapBankingServiceImpl implements BankingService {
+    private static final int STRIPES_PER_CORE = 64;
+
+    private final OffHeapAccountStore store = new OffHeapAccountStore();
+    private final AccountLockStripes lockStripes =
+        new AccountLockStripes(Runtime.getRuntime().availableProcessors() * STRIPES_PER_CORE);
+    private final IdempotencyCache<TransferOutcome> recentTransfers = IdempotencyCache.fromSystemProperties();
+    private final AccountIdGenerator idGenerator;
+
+    public OffHeapBankingServiceImpl() {
+        this(BankingServiceImpl.loadIdGenerator());
+    }
+
+    public OffHeapBankingServiceImpl(AccountIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Account createAccount(String customerId, Account.AccountType type) {
+        int record;
+        // A duplicate can only come from a generator reusing a thread slot; draw another ID
+        do {
+            record = store.insert(idGenerator.nextId(), customerId, type);
+        } while (record < 0);
+        return new OffHeapAccount(store, record);
+    }
+
+    @Override
+    public Optional<Account> getAccount(String accountId) {
+        int record = find(accountId);
+        return record < 0 ? Optional.empty() : Optional.of(new OffHeapAccount(store, record));
+    }
+
+    @Override
+    public BalanceSnapshot getBalanceSnapshot(String accountId) {
+        int record = find(accountId);
+        if (record < 0) {
+            throw new IllegalArgumentException("Invalid account ID");
+        }
+        return new OffHeapAccount(store, record).balanceSnapshot();
+    }
+
+    @Override
+    public List<Account> findAccounts(String customerId) {
+        int[] records = store.recordsOf(customerId);
+        List<Account> accounts = new ArrayList<>(records.length);
+        for (int record : records) {
+            accounts.add(new OffHeapAccount(store, record));
+        }
+        return accounts;
+    }
+
+    @Override
+    public void transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        int from = find(fromAccountId);
+        int to = find(toAccountId);
+        if (from < 0 || to < 0) {
+            throw new IllegalArgumentException("Invalid account ID");
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        if (move(from, to, FixedPointAccountImpl.toMinorUnits(amount)) == WithdrawResult.INSUFFICIENT_FUNDS) {
+            throw TransferFailedException.of(TransferOutcome.Status.INSUFFICIENT_FUNDS);
+        }
+    }
+
+    @Override
+    public TransferOutcome transfer(String idempotencyKey, TransferInstruction instruction) {
+        if (idempotencyKey == null) {
+            return new TransferOutcome(instruction, apply(instruction));
+        }
+        TransferOutcome outcome = recentTransfers.computeIfAbsent(idempotencyKey,
+            () -> new TransferOutcome(instruction, apply(instruction)));
+        return BankingServiceImpl.checkSameTransfer(idempotencyKey, outcome, instruction);
+    }
+
+    // Instructions are applied one by one, each atomically; records are small enough that
+    // netting buys little here compared to the BigDecimal engine.
+    @Override
+    public List<TransferOutcome> transferBatch(List<TransferInstruction> instructions) {
+        List<TransferOutcome> outcomes = new ArrayList<>(instructions.size());
+        for (TransferInstruction instruction : instructions) {
+            outcomes.add(new TransferOutcome(instruction, apply(instruction)));
+        }
+        return outcomes;
+    }
+
+    private TransferOutcome.Status apply(TransferInstruction instruction) {
+        BigDecimal amount = instruction.amount();
+        if (amount == null || amount.signum() <= 0) {
+            return TransferOutcome.Status.INVALID_AMOUNT;
+        }
+        long minorUnits;
+        try {
+            minorUnits = FixedPointAccountImpl.toMinorUnits(amount);
+        } catch (IllegalArgumentException e) {
+            return TransferOutcome.Status.INVALID_AMOUNT;
+        }
+        int from = find(instruction.fromAccountId());
+        int to = find(instruction.toAccountId());
+        if (from < 0 || to < 0) {
+            return TransferOutcome.Status.INVALID_ACCOUNT;
+        }
+        return move(from, to, minorUnits) == WithdrawResult.SUCCESS
+            ? TransferOutcome.Status.COMPLETED
+            : TransferOutcome.Status.INSUFFICIENT_FUNDS;
+    }
+
+    private WithdrawResult move(int from, int to, long minorUnits) {
+        int fromStripe = lockStripes.stripeOfHash(from);
+        int toStripe = lockStripes.stripeOfHash(to);
+        lockStripes.lock(fromStripe, toStripe);
+        try {
+            OffHeapAccount debit = new OffHeapAccount(store, from);
+            WithdrawResult result = debit.tryWithdrawMinorUnits(minorUnits);
+            if (result == WithdrawResult.SUCCESS) {
+                try {
+                    new OffHeapAccount(store, to).depositMinorUnits(minorUnits);
+                } catch (ArithmeticException e) {
+                    // The credit would overflow the balance: put the debit back before failing
+                    debit.depositMinorUnits(minorUnits);
+                    throw e;
+                }
+            }
+            return result;
+        } finally {
+            lockStripes.unlock(fromStripe, toStripe);
+        }
+    }
+
+    @Override
+    public void listAccounts(String customerId) {
+        findAccounts(customerId)
+            .forEach(account -> System.out.printf("Account ID: %s, Type: %s, Balance: $%.2f%n",
+                account.getAccountId(),
+                account.getType(),
+                account.getBalance()));
+    }
+
+    private int find(String accountId) {
+        long id;
+        try {
+            id = AccountIdGenerator.parse(accountId);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+        return store.find(id);
+    }
+}
@@ -0,0 +1,125 @@
+package com.banking.core.service;
+
+import com.banking.api.model.Account;
+import com.banking.api.service.TransferFailedException;
+import com.banking.api.service.TransferInstruction;
+import com.banking.api.service.TransferOutcome;
+import com.banking.core.model.FixedPointAccountImpl;
+import com.banking.core.shard.Completion;
+import com.banking.core.shard.ShardAccount;
+import com.banking.core.shard.ShardedLedger;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+// Single-writer BankingService provider: accounts are partitioned across N shards, each owned
+// by one thread, and every mutation is a command sent to the owning shard through lock-free
+// ring buffers (see ShardedLedger). Nothing on the write path takes a lock. Callers enqueue with
+// a CAS on the shard inbox's tail (retried when producers collide); the shard thread applies
+// commands and hands credits to other shards without any CAS.
+//
+// Cross-shard transfers are two-phase: the debit shard reserves the money, then forwards the
+// credit to the other shard; the caller is released when the credit lands. transferBatch
+// pipelines its transfers into the shards and only waits where an instruction depends on an
+// earlier one. After close() new commands are rejected with IllegalStateException.
+// Registry, account IDs and the customer index are inherited from BankingServiceImpl.
+//
+// Configuration (system properties, since ServiceLoader needs a no-arg constructor):
+//   banking.shards            number of shard threads (default: available processors)
+//   banking.shard.inboxSize   commands buffered per shard inbox, power of two (default 65536)
+public class ShardedBankingServiceImpl extends BankingServiceImpl implements AutoCloseable {
+    private static final int DEFAULT_INBOX_SIZE = 1 << 16;
+    private static final int CREDIT_RING_SIZE = 1 << 12;
+
+    private final ShardedLedger ledger;
+
+    public ShardedBankingServiceImpl() {
+        this(Integer.getInteger("banking.shards", Runtime.getRuntime().availableProcessors()),
+            Integer.getInteger("banking.shard.inboxSize", DEFAULT_INBOX_SIZE));
+    }
+
+    public ShardedBankingServiceImpl(int shards, int inboxSize) {
+        this.ledger = new ShardedLedger(shards, inboxSize, CREDIT_RING_SIZE);
+    }
+
+    @Override
+    protected Account newAccount(long accountId, String customerId, Account.AccountType type) {
+        return ledger.newAccount(accountId, customerId, type);
+    }
+
+    @Override
+    public void transfer(String fromAccountId, String toAccountId, BigDecimal amount) {
+        Account fromAccount = getAccount(fromAccountId).orElse(null);
+        Account toAccount = getAccount(toAccountId).orElse(null);
+        if (fromAccount == null || toAccount == null) {
+            throw new IllegalArgumentException("Invalid account ID");
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        Completion completion = ledger.submitTransfer((ShardAccount) fromAccount, (ShardAccount) toAccount,
+            FixedPointAccountImpl.toMinorUnits(amount));
+        if (completion.await() == TransferOutcome.Status.INSUFFICIENT_FUNDS) {
+            throw TransferFailedException.of(TransferOutcome.Status.INSUFFICIENT_FUNDS);
+        }
+    }
+
+    @Override
+    public List<TransferOutcome> transferBatch(List<TransferInstruction> instructions) {
+        int size = instructions.size();
+        TransferOutcome.Status[] statuses = new TransferOutcome.Status[size];
+        Completion[] completions = new Completion[size];
+        // Submit without waiting so all shards work on the batch in parallel. Debits from the same
+        // account reach the same inbox from this one thread and are applied in order, but the credit
+        // of an earlier instruction may still be travelling from another shard: before debiting an
+        // account the batch has credited, wait for everything submitted so far, so the instructions
+        // take effect in order as the BankingService contract requires.
+        Set<Account> credited = Collections.newSetFromMap(new IdentityHashMap<>());
+        int awaited = 0;
+        for (int i = 0; i < size; i++) {
+            TransferInstruction instruction = instructions.get(i);
+            BigDecimal amount = instruction.amount();
+            Account from = getAccount(instruction.fromAccountId()).orElse(null);
+            Account to = getAccount(instruction.toAccountId()).orElse(null);
+            long minorUnits;
+            if (amount == null || amount.signum() <= 0 || (minorUnits = minorUnitsOrZero(amount)) == 0) {
+                statuses[i] = TransferOutcome.Status.INVALID_AMOUNT;
+            } else if (from == null || to == null) {
+                statuses[i] = TransferOutcome.Status.INVALID_ACCOUNT;
+            } else {
+                if (credited.contains(from)) {
+                    for (; awaited < i; awaited++) {
+                        if (completions[awaited] != null) {
+                            statuses[awaited] = completions[awaited].await();
+                        }
+                    }
+                    credited.clear();
+                }
+                completions[i] = ledger.submitTransfer((ShardAccount) from, (ShardAccount) to, minorUnits);
+                credited.add(to);
+            }
+        }
+        List<TransferOutcome> outcomes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TransferOutcome.Status status = statuses[i] != null ? statuses[i] : completions[i].await();
+            outcomes.add(new TransferOutcome(instructions.get(i), status));
+        }
+        return outcomes;
+    }
+
+    private static long minorUnitsOrZero(BigDecimal amount) {
+        try {
+            return FixedPointAccountImpl.toMinorUnits(amount);
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        ledger.close();
+    }
+}
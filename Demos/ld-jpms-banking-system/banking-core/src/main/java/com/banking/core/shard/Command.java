@@ -0,0 +1,26 @@
+package com.banking.core.shard;
+
+// One request travelling through the shard queues.
+// A transfer is two-phase: the debit shard reserves the amount (takes it off the source account)
+// and then forwards this same object, re-tagged CREDIT, to the credit shard, so the second leg
+// costs no extra allocation.
+final class Command {
+    static final int DEPOSIT = 0;
+    static final int WITHDRAW = 1;
+    static final int TRANSFER = 2;
+    static final int CREDIT = 3;
+
+    int kind;
+    final ShardAccount account;
+    final ShardAccount target;
+    final long amount;
+    final Completion completion;
+
+    Command(int kind, ShardAccount account, ShardAccount target, long amount, Completion completion) {
+        this.kind = kind;
+        this.account = account;
+        this.target = target;
+        this.amount = amount;
+        this.completion = completion;
+    }
+}
@@ -0,0 +1,60 @@
+package com.banking.core.shard;
+
+import com.banking.api.service.TransferOutcome;
+import java.util.concurrent.locks.LockSupport;
+
+// Result slot a caller waits on while a shard executes its command.
+// The waiter spins briefly (most commands finish within microseconds) and then parks;
+// the shard only pays for an unpark if the waiter actually went to sleep.
+// A parked waiter also wakes up now and then to check whether the ledger was closed under it:
+// a command still queued when the shards stopped never runs, and await() then throws.
+public final class Completion {
+    private static final int SPINS = 200;
+    private static final long PARK_NANOS = 10_000_000L;
+
+    private final Thread waiter = Thread.currentThread();
+    // The shard the command was submitted to
+    private final Shard shard;
+    private volatile TransferOutcome.Status status;
+    private volatile boolean parked;
+
+    Completion(Shard shard) {
+        this.shard = shard;
+    }
+
+    void complete(TransferOutcome.Status result) {
+        status = result;
+        if (parked) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    // Must be called from the thread that created the completion.
+    // Throws IllegalStateException if the ledger was closed before the command ran.
+    public TransferOutcome.Status await() {
+        TransferOutcome.Status result;
+        for (int i = 0; i < SPINS; i++) {
+            if ((result = status) != null) {
+                return result;
+            }
+            Thread.onSpinWait();
+        }
+        parked = true;
+        try {
+            while ((result = status) == null) {
+                if (shard.isTerminated()) {
+                    // Nothing runs after termination; re-read in case the command was among the last
+                    result = status;
+                    if (result == null) {
+                        throw new IllegalStateException(Shard.CLOSED);
+                    }
+                    return result;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            return result;
+        } finally {
+            parked = false;
+        }
+    }
+}
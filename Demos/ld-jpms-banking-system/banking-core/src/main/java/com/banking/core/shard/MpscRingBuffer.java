@@ -0,0 +1,100 @@
+package com.banking.core.shard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Bounded lock-free queue for many producers and a single consumer (a shard's inbox).
+//
+// Producers claim a slot by CAS on tail and then publish the element into it; the consumer
+// treats a null slot as "not published yet", so it never needs to read tail on the hot path.
+// The consumer clears the slot before advancing head, which is what lets producers reuse it.
+// head and tail are padded onto their own cache lines: producers hammer tail, the consumer head.
+public final class MpscRingBuffer<E> extends MpscRingBufferHead {
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+    private static final VarHandle PRODUCER_LIMIT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MpscRingBufferHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(MpscRingBufferTail.class, "tail", long.class);
+            PRODUCER_LIMIT = lookup.findVarHandle(MpscRingBufferTail.class, "producerLimit", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Object[] elements;
+    private final int mask;
+
+    public MpscRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.elements = new Object[capacity];
+        this.mask = capacity - 1;
+        PRODUCER_LIMIT.setRelease(this, (long) capacity);
+    }
+
+    // Returns false if the queue is full; the caller decides how to back off
+    public boolean offer(E element) {
+        long limit = (long) PRODUCER_LIMIT.getAcquire(this);
+        long claimed;
+        do {
+            claimed = (long) TAIL.getVolatile(this);
+            if (claimed >= limit) {
+                // Only re-read the consumer's index when the cached limit says we might be full
+                limit = (long) HEAD.getVolatile(this) + elements.length;
+                if (claimed >= limit) {
+                    return false;
+                }
+                PRODUCER_LIMIT.setRelease(this, limit);
+            }
+        } while (!TAIL.compareAndSet(this, claimed, claimed + 1));
+        // Volatile publish: pairs with the consumer's "check queue, then park" in Shard
+        ELEMENTS.setVolatile(elements, (int) claimed & mask, element);
+        return true;
+    }
+
+    // Consumer thread only. Returns null if nothing has been published at head yet.
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long current = head;
+        int slot = (int) current & mask;
+        Object element = ELEMENTS.getVolatile(elements, slot);
+        if (element == null) {
+            return null;
+        }
+        ELEMENTS.setRelease(elements, slot, null);
+        HEAD.setRelease(this, current + 1);
+        return (E) element;
+    }
+
+    // True if a producer has at least claimed a slot the consumer has not taken yet
+    public boolean isEmpty() {
+        return (long) TAIL.getVolatile(this) == (long) HEAD.getVolatile(this);
+    }
+}
+
+// Field layout: 7 longs of padding around tail and around head, so neither shares a 64 byte line
+// with the other or with the object header / array reference.
+abstract class MpscRingBufferPad0 {
+    long p00, p01, p02, p03, p04, p05, p06;
+}
+
+abstract class MpscRingBufferTail extends MpscRingBufferPad0 {
+    volatile long tail;
+    // Producers' cached view of head + capacity, so a non-full offer never touches head's line
+    volatile long producerLimit;
+}
+
+abstract class MpscRingBufferPad1 extends MpscRingBufferTail {
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+abstract class MpscRingBufferHead extends MpscRingBufferPad1 {
+    volatile long head;
+    long p20, p21, p22, p23, p24, p25, p26;
+}
@@ -0,0 +1,249 @@
+package com.banking.core.shard;
+
+import com.banking.api.service.TransferOutcome;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.LockSupport;
+
+// One partition of the ledger and the only thread that ever mutates its accounts.
+//
+// Inputs: an MPSC inbox for commands from callers, plus one SPSC ring per other shard carrying
+// the credit legs of cross-shard transfers. Because a single thread applies everything, commands
+// need no locks or CAS and the accounts' cache lines stay on one core.
+// Idle strategy: spin, then yield, then park; producers unpark the shard only if it is parked.
+final class Shard implements Runnable {
+    static final String CLOSED = "The ledger is closed";
+    private static final int DRAIN_LIMIT = 256;
+    private static final int IDLE_SPINS = 100;
+    private static final int IDLE_YIELDS = 10;
+    // Upper bound on a park, as a safety net only: producers unpark a sleeping shard
+    private static final long PARK_NANOS = 10_000_000L;
+
+    private final int index;
+    private final MpscRingBuffer<Command> inbox;
+    // fromShards[i] carries credits from shard i to this shard, toShards[i] from this shard to shard i
+    // (null at this shard's own index)
+    private SpscRingBuffer<Command>[] fromShards;
+    private SpscRingBuffer<Command>[] toShards;
+    // Credits that did not fit into a full SPSC ring; retried on every loop, never dropped
+    private final ArrayDeque<Command> pendingCredits = new ArrayDeque<>();
+    private final Thread thread;
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+    // closed: submit() rejects new commands. terminated: the thread has stopped and in-flight
+    // credits were applied, so a command that has not completed by now never will.
+    private volatile boolean closed;
+    private volatile boolean terminated;
+
+    Shard(int index, int inboxCapacity) {
+        this.index = index;
+        this.inbox = new MpscRingBuffer<>(inboxCapacity);
+        this.thread = new Thread(this, "banking-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void connect(SpscRingBuffer<Command>[] fromShards, SpscRingBuffer<Command>[] toShards) {
+        this.fromShards = fromShards;
+        this.toShards = toShards;
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    // Shutdown, driven by ShardedLedger.close(): close every shard, stop every thread, then let the
+    // closing thread (now the only one touching the shards) apply credits still in flight, so a
+    // transfer whose debit ran is never left half done, and finally mark the shards terminated.
+    // Commands still in an inbox are not run; their waiters get an IllegalStateException.
+    void close() {
+        closed = true;
+    }
+
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                // The thread must be gone before anyone else touches the shard's state
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // After every shard's thread has stopped: credits arrive from other shards' rings and from
+    // the credits this shard could not hand over yet (which belong to other shards' accounts)
+    void applyPendingCredits() {
+        Command command;
+        for (SpscRingBuffer<Command> ring : fromShards) {
+            if (ring != null) {
+                while ((command = ring.poll()) != null) {
+                    execute(command);
+                }
+            }
+        }
+        while ((command = pendingCredits.poll()) != null) {
+            execute(command);
+        }
+    }
+
+    void terminate() {
+        terminated = true;
+    }
+
+    boolean isTerminated() {
+        return terminated;
+    }
+
+    // Any thread: enqueue, backing off while the inbox is full
+    void submit(Command command) {
+        if (closed) {
+            throw new IllegalStateException(CLOSED);
+        }
+        while (!inbox.offer(command)) {
+            if (closed) {
+                throw new IllegalStateException(CLOSED);
+            }
+            wake();
+            Thread.yield();
+        }
+        wake();
+    }
+
+    private void wake() {
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        int idle = 0;
+        while (running) {
+            if (drain() > 0) {
+                idle = 0;
+            } else if (idle < IDLE_SPINS) {
+                idle++;
+                Thread.onSpinWait();
+            } else if (idle < IDLE_SPINS + IDLE_YIELDS) {
+                idle++;
+                Thread.yield();
+            } else {
+                sleeping = true;
+                // Re-check after announcing: a producer that published before seeing
+                // sleeping == true has left work we must not sleep on
+                if (!hasWork()) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    private int drain() {
+        int processed = 0;
+        Command command;
+        // Credits first: they complete transfers that are already half done
+        for (SpscRingBuffer<Command> ring : fromShards) {
+            if (ring != null) {
+                while (processed < DRAIN_LIMIT && (command = ring.poll()) != null) {
+                    execute(command);
+                    processed++;
+                }
+            }
+        }
+        while (processed < DRAIN_LIMIT && (command = inbox.poll()) != null) {
+            execute(command);
+            processed++;
+        }
+        if (!pendingCredits.isEmpty()) {
+            retryPendingCredits();
+        }
+        return processed;
+    }
+
+    private boolean hasWork() {
+        if (!inbox.isEmpty() || !pendingCredits.isEmpty()) {
+            return true;
+        }
+        for (SpscRingBuffer<Command> ring : fromShards) {
+            if (ring != null && !ring.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void execute(Command command) {
+        ShardAccount account = command.account;
+        switch (command.kind) {
+            case Command.DEPOSIT -> {
+                long balance = account.ownerBalance();
+                if (balance > Long.MAX_VALUE - command.amount) {
+                    command.completion.complete(TransferOutcome.Status.INVALID_AMOUNT);
+                } else {
+                    account.ownerSetBalance(balance + command.amount);
+                    command.completion.complete(TransferOutcome.Status.COMPLETED);
+                }
+            }
+            case Command.WITHDRAW -> {
+                long balance = account.ownerBalance();
+                if (balance < command.amount) {
+                    command.completion.complete(TransferOutcome.Status.INSUFFICIENT_FUNDS);
+                } else {
+                    account.ownerSetBalance(balance - command.amount);
+                    command.completion.complete(TransferOutcome.Status.COMPLETED);
+                }
+            }
+            case Command.TRANSFER -> {
+                // Phase one: reserve on the debit shard. Once the amount is off the source
+                // account the transfer cannot fail any more; the credit is only a matter of delivery.
+                long balance = account.ownerBalance();
+                if (balance < command.amount) {
+                    command.completion.complete(TransferOutcome.Status.INSUFFICIENT_FUNDS);
+                    return;
+                }
+                account.ownerSetBalance(balance - command.amount);
+                command.kind = Command.CREDIT;
+                Shard creditShard = command.target.shard;
+                if (creditShard == this) {
+                    execute(command);
+                } else {
+                    sendCredit(creditShard, command);
+                }
+            }
+            case Command.CREDIT -> {
+                // Phase two. The money was already reserved, so this cannot be declined; it could
+                // only overflow if the whole book held more than Long.MAX_VALUE minor units.
+                ShardAccount target = command.target;
+                target.ownerSetBalance(target.ownerBalance() + command.amount);
+                command.completion.complete(TransferOutcome.Status.COMPLETED);
+            }
+            default -> throw new IllegalStateException("Unknown command " + command.kind);
+        }
+    }
+
+    private void sendCredit(Shard creditShard, Command command) {
+        // Never block on a full ring: the other shard may be blocked sending credits to us
+        if (!toShards[creditShard.index].offer(command)) {
+            pendingCredits.add(command);
+        }
+        creditShard.wake();
+    }
+
+    private void retryPendingCredits() {
+        for (int i = pendingCredits.size(); i > 0; i--) {
+            Command command = pendingCredits.poll();
+            Shard creditShard = command.target.shard;
+            if (!toShards[creditShard.index].offer(command)) {
+                pendingCredits.add(command);
+            }
+            creditShard.wake();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.banking.core.shard;
+
+import com.banking.api.model.WithdrawResult;
+import com.banking.api.service.AccountIdGenerator;
+import com.banking.api.service.BalanceSnapshot;
+import com.banking.api.service.TransferOutcome;
+import com.banking.core.model.FixedPointAccountImpl;
+import com.banking.core.model.VersionedAccount;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+
+// Account owned by exactly one shard thread.
+// Only that thread ever writes the balance, so there is no CAS and no lock: a release store is
+// enough for readers on other threads to see a committed value. Deposits and withdrawals made
+// through this object are sent to the owning shard and wait for it.
+// A single writer also makes the snapshot seqlock free: the owner just bumps the sequence
+// around each store, no CAS needed.
+public final class ShardAccount implements VersionedAccount {
+    private static final VarHandle BALANCE;
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BALANCE = lookup.findVarHandle(ShardAccount.class, "balance", long.class);
+            SEQUENCE = lookup.findVarHandle(ShardAccount.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long accountId;
+    private String accountIdText;
+    private final String customerId;
+    private final AccountType type;
+    final Shard shard;
+    // Minor units, written only by the owning shard
+    private volatile long balance;
+    // Odd while the owner is storing a new balance, +2 per committed mutation
+    private volatile long sequence;
+
+    ShardAccount(long accountId, String customerId, AccountType type, Shard shard) {
+        this.accountId = accountId;
+        this.customerId = customerId;
+        this.type = type;
+        this.shard = shard;
+    }
+
+    @Override
+    public String getAccountId() {
+        String text = accountIdText;
+        if (text == null) {
+            text = AccountIdGenerator.format(accountId);
+            accountIdText = text;
+        }
+        return text;
+    }
+
+    @Override
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    // Last committed balance; a transfer in flight is visible as debited but not yet credited
+    @Override
+    public BigDecimal getBalance() {
+        return BigDecimal.valueOf(balance, FixedPointAccountImpl.SCALE);
+    }
+
+    @Override
+    public AccountType getType() {
+        return type;
+    }
+
+    @Override
+    public void deposit(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Deposit amount must be positive");
+        }
+        Completion completion = new Completion(shard);
+        shard.submit(new Command(Command.DEPOSIT, this, null, FixedPointAccountImpl.toMinorUnits(amount), completion));
+        if (completion.await() != TransferOutcome.Status.COMPLETED) {
+            throw new IllegalArgumentException("Deposit of " + amount + " would overflow the balance");
+        }
+    }
+
+    @Override
+    public void withdraw(BigDecimal amount) throws InsufficientFundsException {
+        if (tryWithdraw(amount) == WithdrawResult.INSUFFICIENT_FUNDS) {
+            throw InsufficientFundsException.shared();
+        }
+    }
+
+    @Override
+    public WithdrawResult tryWithdraw(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Withdrawal amount must be positive");
+        }
+        Completion completion = new Completion(shard);
+        shard.submit(new Command(Command.WITHDRAW, this, null, FixedPointAccountImpl.toMinorUnits(amount), completion));
+        return completion.await() == TransferOutcome.Status.INSUFFICIENT_FUNDS
+            ? WithdrawResult.INSUFFICIENT_FUNDS
+            : WithdrawResult.SUCCESS;
+    }
+
+    @Override
+    public BalanceSnapshot balanceSnapshot() {
+        while (true) {
+            long before = (long) SEQUENCE.getAcquire(this);
+            long current = (long) BALANCE.getAcquire(this);
+            VarHandle.loadLoadFence();
+            if ((before & 1) == 0 && (long) SEQUENCE.getOpaque(this) == before) {
+                return new BalanceSnapshot(getAccountId(), BigDecimal.valueOf(current, FixedPointAccountImpl.SCALE),
+                    before >>> 1);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Owning shard thread only
+    long ownerBalance() {
+        return (long) BALANCE.get(this);
+    }
+
+    void ownerSetBalance(long minorUnits) {
+        long current = (long) SEQUENCE.get(this);
+        SEQUENCE.setOpaque(this, current + 1);
+        VarHandle.storeStoreFence();
+        BALANCE.setRelease(this, minorUnits);
+        SEQUENCE.setRelease(this, current + 2);
+    }
+}
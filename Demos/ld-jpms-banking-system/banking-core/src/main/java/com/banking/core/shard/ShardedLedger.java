@@ -0,0 +1,92 @@
+package com.banking.core.shard;
+
+import com.banking.api.model.Account;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The set of shards plus the wiring between them: one MPSC inbox per shard and a full
+// N x N matrix of SPSC rings for cross-shard credits.
+// Accounts are assigned to a shard by a mixed hash of the account number, so time-ordered IDs
+// created back to back still spread evenly.
+public final class ShardedLedger implements AutoCloseable {
+    private final Shard[] shards;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    public ShardedLedger(int shardCount, int inboxCapacity, int creditRingCapacity) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, inboxCapacity);
+        }
+        SpscRingBuffer<Command>[][] rings = newRingMatrix(shardCount);
+        for (int from = 0; from < shardCount; from++) {
+            for (int to = 0; to < shardCount; to++) {
+                if (from != to) {
+                    rings[from][to] = new SpscRingBuffer<>(creditRingCapacity);
+                }
+            }
+        }
+        for (int i = 0; i < shardCount; i++) {
+            SpscRingBuffer<Command>[] fromShards = newRingArray(shardCount);
+            for (int from = 0; from < shardCount; from++) {
+                fromShards[from] = rings[from][i];
+            }
+            shards[i].connect(fromShards, rings[i]);
+        }
+        for (Shard shard : shards) {
+            shard.start();
+        }
+    }
+
+    // Generic arrays cannot be created directly; the casts are safe because these arrays only
+    // ever hold rings of commands
+    @SuppressWarnings("unchecked")
+    private static SpscRingBuffer<Command>[][] newRingMatrix(int size) {
+        return (SpscRingBuffer<Command>[][]) new SpscRingBuffer<?>[size][size];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SpscRingBuffer<Command>[] newRingArray(int length) {
+        return (SpscRingBuffer<Command>[]) new SpscRingBuffer<?>[length];
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public ShardAccount newAccount(long accountId, String customerId, Account.AccountType type) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        int shard = (int) ((h >>> 32) * shards.length >>> 32);
+        return new ShardAccount(accountId, customerId, type, shards[shard]);
+    }
+
+    // Sends a transfer to the debit account's shard without waiting; call await() on the result.
+    // Amount is in minor units and must already be validated as positive.
+    public Completion submitTransfer(ShardAccount from, ShardAccount to, long amount) {
+        Completion completion = new Completion(from.shard);
+        from.shard.submit(new Command(Command.TRANSFER, from, to, amount, completion));
+        return completion;
+    }
+
+    // Rejects new commands, stops the shard threads and completes the transfers already debited.
+    // Callers waiting on commands that never ran get an IllegalStateException (see Shard.close).
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        for (Shard shard : shards) {
+            shard.close();
+        }
+        for (Shard shard : shards) {
+            shard.stop();
+        }
+        for (Shard shard : shards) {
+            shard.applyPendingCredits();
+        }
+        for (Shard shard : shards) {
+            shard.terminate();
+        }
+    }
+}
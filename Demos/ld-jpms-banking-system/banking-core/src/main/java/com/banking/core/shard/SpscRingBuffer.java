@@ -0,0 +1,59 @@
+package com.banking.core.shard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Bounded lock-free queue for exactly one producer and one consumer (shard -> shard credits).
+//
+// Fullness and emptiness are both read from the slot itself (null = free), so producer and
+// consumer each keep their index in a plain field of their own and never read the other's:
+// the only cache lines that move between the two cores are the ones holding elements.
+public final class SpscRingBuffer<E> {
+    private static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final Object[] elements;
+    private final int mask;
+    // Producer-owned
+    private long tail;
+    private long p01, p02, p03, p04, p05, p06, p07;
+    // Consumer-owned
+    private long head;
+
+    public SpscRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.elements = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // Producer thread only. Returns false if the queue is full.
+    public boolean offer(E element) {
+        int slot = (int) tail & mask;
+        if (ELEMENTS.getAcquire(elements, slot) != null) {
+            return false;
+        }
+        // Volatile publish: pairs with the consumer's "check queue, then park" in Shard
+        ELEMENTS.setVolatile(elements, slot, element);
+        tail++;
+        return true;
+    }
+
+    // Consumer thread only. Returns null if the queue is empty.
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        int slot = (int) head & mask;
+        Object element = ELEMENTS.getVolatile(elements, slot);
+        if (element == null) {
+            return null;
+        }
+        ELEMENTS.setRelease(elements, slot, null);
+        head++;
+        return (E) element;
+    }
+
+    // Consumer thread only
+    public boolean isEmpty() {
+        return ELEMENTS.getVolatile(elements, (int) head & mask) == null;
+    }
+}
@@ -11,7 +11,18 @@ module com.banking.core {
     // from com.banking.core.service
     // Enables service loading via Service.Loader.load(Banking.class)
     // This is a clean, runtime-discoverable form of dependency injection.
+    // Several implementations can be listed; consumers pick one (the first is the default).
+    // FixedPointBankingServiceImpl keeps balances as long minor units instead of BigDecimal.
+    // JournaledBankingServiceImpl adds a write-ahead journal and snapshots for durability.
+    // OffHeapBankingServiceImpl keeps account records in direct memory for very large books.
+    // ShardedBankingServiceImpl gives each shard of accounts a single writer thread fed by ring buffers.
     provides com.banking.api.service.BankingService
-            with com.banking.core.service.BankingServiceImpl;
+            with com.banking.core.service.BankingServiceImpl,
+                 com.banking.core.service.FixedPointBankingServiceImpl,
+                 com.banking.core.service.JournaledBankingServiceImpl,
+                 com.banking.core.service.OffHeapBankingServiceImpl,
+                 com.banking.core.service.ShardedBankingServiceImpl;
     exports com.banking.core.service;
+    // Account ID generation is pluggable; TimeOrderedIdGenerator is used when no provider is found
+    uses com.banking.api.service.AccountIdGenerator;
 }
\ No newline at end of file